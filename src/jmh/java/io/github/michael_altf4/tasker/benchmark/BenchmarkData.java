@@ -0,0 +1,43 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.model.Priority;
+import io.github.michael_altf4.tasker.storage.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Task task = new Task("Task " + id, "Description of task " + id);
+            task.setId(id);
+            task.setPriority(priority(id));
+            task.setCreatedAt(EPOCH.plusMinutes(id));
+            task.setPosition(id * 1024);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static List<TaskResource> resources(int count) {
+        List<TaskResource> resources = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            resources.add(new TaskResource(id, "Task " + id, "Description of task " + id, id % 3 == 0,
+                    priority(id), EPOCH.plusMinutes(id), id * 1024, 0, 0));
+        }
+        return resources;
+    }
+
+    static Priority priority(long id) {
+        return Priority.values()[(int) (id % Priority.values().length)];
+    }
+}
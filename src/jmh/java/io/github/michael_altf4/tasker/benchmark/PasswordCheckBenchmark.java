@@ -0,0 +1,48 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.security.CredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of HTTP Basic authentication: a full BCrypt check (the encoder from
+ * {@code SecurityConfig}) against a hit in the {@link CredentialCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordCheckBenchmark {
+
+    private static final String USERNAME = "benchmark";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder passwordEncoder;
+    private CredentialCache credentialCache;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+        credentialCache = new CredentialCache(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10));
+        credentialCache.put(USERNAME, hash, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcrypt() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean cachedCredentials() {
+        return credentialCache.matches(USERNAME, hash, PASSWORD);
+    }
+}
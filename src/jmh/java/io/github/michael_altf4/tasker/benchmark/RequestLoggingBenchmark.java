@@ -0,0 +1,145 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost attributable to one API request, before and after the logging rework.
+ * <p>
+ * {@code before}: three SQL statements logged at DEBUG with formatting, plus an INFO line from both
+ * the controller and the service, all written synchronously to a file.
+ * {@code after}: SQL logging off, request events at DEBUG (disabled), and one JSON request line
+ * sampled at 1% through a never-blocking async appender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String SQL = """
+            select
+                t1_0.id,
+                t1_0.completed,
+                t1_0.created_at,
+                t1_0.description,
+                t1_0.position,
+                t1_0.priority,
+                t1_0.title
+            from
+                task t1_0
+            where
+                t1_0.user_id=?
+            order by
+                t1_0.created_at desc,
+                t1_0.id desc
+            fetch
+                first ? rows only""";
+
+    @Param({"before", "after"})
+    private String mode;
+
+    private LoggerContext context;
+    private Path logFile;
+    private Logger sqlLogger;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private Logger requestLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("request-logging", ".log");
+        context = new LoggerContext();
+        context.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder());
+        file.start();
+
+        Appender<ILoggingEvent> root = file;
+        if (mode.equals("after")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        sqlLogger = context.getLogger("org.hibernate.SQL");
+        sqlLogger.setLevel(mode.equals("before") ? Level.DEBUG : Level.INFO);
+        controllerLogger = context.getLogger("io.github.michael_altf4.tasker.rest.controller.TaskController");
+        serviceLogger = context.getLogger("io.github.michael_altf4.tasker.service.TaskService");
+        requestLogger = context.getLogger("io.github.michael_altf4.tasker.config.SampledRequestLoggingFilter");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void request() {
+        long id = ThreadLocalRandom.current().nextLong(1, 100_000);
+        if (mode.equals("before")) {
+            controllerLogger.info("Received request to get task with id='{}'", id);
+        } else {
+            controllerLogger.debug("Received request to get task with id='{}'", id);
+        }
+        for (int i = 0; i < 3; i++) {
+            sqlLogger.debug(SQL);
+        }
+        if (mode.equals("before")) {
+            serviceLogger.info("Updating task ID={} by user: {}", id, "benchmark");
+        } else {
+            serviceLogger.debug("Updating task ID={} by user: {}", id, "benchmark");
+            if (ThreadLocalRandom.current().nextDouble() < 0.01) {
+                requestLogger.atInfo()
+                        .addKeyValue("http.method", "GET")
+                        .addKeyValue("http.path", "/api/tasks/" + id)
+                        .addKeyValue("http.status", 200)
+                        .addKeyValue("duration.ms", 3)
+                        .log("{} {} -> {} in {} ms", "GET", "/api/tasks/" + id, 200, 3);
+            }
+        }
+    }
+
+    private Encoder<ILoggingEvent> encoder() {
+        if (mode.equals("after")) {
+            JsonEncoder json = new JsonEncoder();
+            json.setContext(context);
+            json.start();
+            return json;
+        }
+        PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+        pattern.setContext(context);
+        pattern.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [%t] %-40.40logger{39} : %m%n");
+        pattern.start();
+        return pattern;
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.TaskManagerApplication;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskPage;
+import io.github.michael_altf4.tasker.service.TaskService;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-path latency with the second-level cache on and off, on embedded H2 holding
+ * {@value #TASKS} tasks of one user. A task by id comes from the entity region when the cache is
+ * on; the first list page comes from the query cache, which nothing invalidates here since there
+ * are no writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final int TASKS = 10_000;
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private long firstTaskId;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        context = new SpringApplicationBuilder(TaskManagerApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        taskService = context.getBean(TaskService.class);
+
+        User user = context.getBean(UserRepository.class).save(new User("benchmark", "not-used"));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate, user.getId());
+        firstTaskId = jdbcTemplate.queryForObject("SELECT min(id) FROM task", Long.class);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<TaskResource> taskById() {
+        return taskService.getTodoResourceById(firstTaskId + random.nextInt(TASKS));
+    }
+
+    @Benchmark
+    public Optional<Task> taskDetail() {
+        return taskService.getTodoById(firstTaskId + random.nextInt(TASKS));
+    }
+
+    @Benchmark
+    public TaskPage firstPage() {
+        return taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, null, 20);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, long userId) {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long i = 1; i <= TASKS; i++) {
+            batch.add(new Object[]{"Task " + i, "Description of task " + i, i % 3 == 0,
+                    BenchmarkData.priority(i).name(), Timestamp.valueOf(start.plusSeconds(i)), userId, i * 1024});
+            if (batch.size() == INSERT_BATCH || i == TASKS) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO task (title, description, completed, priority, created_at, user_id, position)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)""", batch);
+                batch.clear();
+            }
+        }
+    }
+}
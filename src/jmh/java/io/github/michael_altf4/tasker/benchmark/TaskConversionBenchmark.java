@@ -0,0 +1,57 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.rest.converter.TaskToTaskResourceConverter;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a page of entities into resources through {@link ConversionService}, as the
+ * write endpoints of {@code TaskController} still do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskConversionBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ConversionService conversionService;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        DefaultConversionService service = new DefaultConversionService();
+        service.addConverter(new TaskToTaskResourceConverter());
+        conversionService = service;
+        tasks = BenchmarkData.tasks(size);
+    }
+
+    @Benchmark
+    public void convertAll(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(conversionService.convert(task, TaskResource.class));
+        }
+    }
+
+    @Benchmark
+    public List<TaskResource> convertDirectly() {
+        TaskToTaskResourceConverter converter = new TaskToTaskResourceConverter();
+        List<TaskResource> resources = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            resources.add(converter.convert(task));
+        }
+        return resources;
+    }
+}
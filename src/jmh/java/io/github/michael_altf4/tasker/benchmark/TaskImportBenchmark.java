@@ -0,0 +1,176 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.michael_altf4.tasker.TaskManagerApplication;
+import io.github.michael_altf4.tasker.rest.controller.TaskExportFormat;
+import io.github.michael_altf4.tasker.rest.controller.TaskImportReader;
+import io.github.michael_altf4.tasker.service.CommentService;
+import io.github.michael_altf4.tasker.service.TaskImportError;
+import io.github.michael_altf4.tasker.service.TaskImportListener;
+import io.github.michael_altf4.tasker.service.TaskImportProgress;
+import io.github.michael_altf4.tasker.service.TaskImportService;
+import io.github.michael_altf4.tasker.service.TaskService;
+import io.github.michael_altf4.tasker.storage.model.Comment;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import throughput in tasks per second on embedded H2 with JDBC batching, for an upload of
+ * {@value #TASKS} tasks with {@value #COMMENTS_PER_TASK} comments each, parsed from NDJSON and from
+ * CSV. {@code oneByOne} is the same data through {@link TaskService#createTask} and
+ * {@link CommentService#createComment}, one transaction per row as with the single-create
+ * endpoints; it does not depend on {@code batchSize}. The tables are emptied before every iteration.
+ * <p>
+ * Only the JDBC-batch loader is measured. The default PostgreSQL loader ({@code COPY ... FROM STDIN},
+ * {@link io.github.michael_altf4.tasker.service.PostgresCopyTaskImportLoader}) needs a PostgreSQL server
+ * and its driver, which the benchmark classpath does not have, so its throughput is not covered here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskImportBenchmark {
+
+    private static final int TASKS = 2000;
+    private static final int COMMENTS_PER_TASK = 4;
+    private static final TaskImportListener IGNORE = new TaskImportListener() {
+        @Override
+        public void rejected(TaskImportError error) {
+        }
+
+        @Override
+        public void committed(TaskImportProgress progress) {
+        }
+    };
+
+    /** Rows (tasks plus comments) per committed batch. */
+    @Param({"200", "2000", "10000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskImportService importService;
+    private TaskService taskService;
+    private CommentService commentService;
+    private ObjectMapper objectMapper;
+    private JdbcTemplate jdbcTemplate;
+    private byte[] ndjson;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        context = new SpringApplicationBuilder(TaskManagerApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasker.import.loader=batch",
+                "--tasker.import.batch-size=" + batchSize,
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        importService = context.getBean(TaskImportService.class);
+        taskService = context.getBean(TaskService.class);
+        commentService = context.getBean(CommentService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = context.getBean(UserRepository.class).save(new User("benchmark", "not-used"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        ndjson = ndjson();
+        csv = csv();
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        jdbcTemplate.update("DELETE FROM comment");
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("UPDATE app_user SET open_task_count = 0, completed_task_count = 0");
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public TaskImportProgress importNdjson() throws IOException {
+        return importService.importTasks(
+                TaskImportReader.of(TaskExportFormat.NDJSON, new ByteArrayInputStream(ndjson), objectMapper), IGNORE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public TaskImportProgress importCsv() throws IOException {
+        return importService.importTasks(
+                TaskImportReader.of(TaskExportFormat.CSV, new ByteArrayInputStream(csv), objectMapper), IGNORE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public long oneByOne() {
+        long created = 0;
+        for (int i = 1; i <= TASKS; i++) {
+            Task task = taskService.createTask(new Task("Imported task " + i, "Description of task " + i));
+            for (int c = 1; c <= COMMENTS_PER_TASK; c++) {
+                Comment comment = new Comment();
+                comment.setText("Comment " + c + " on task " + i);
+                commentService.createComment(comment, task);
+            }
+            created += task.getId();
+        }
+        return created;
+    }
+
+    private static byte[] ndjson() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 1; i <= TASKS; i++) {
+            out.append("{\"title\":\"Imported task ").append(i)
+                    .append("\",\"description\":\"Description of task ").append(i)
+                    .append("\",\"priority\":\"").append(BenchmarkData.priority(i))
+                    .append("\",\"completed\":").append(i % 3 == 0)
+                    .append(",\"comments\":[");
+            for (int c = 1; c <= COMMENTS_PER_TASK; c++) {
+                if (c > 1) {
+                    out.append(',');
+                }
+                out.append("{\"text\":\"Comment ").append(c).append(" on task ").append(i).append("\"}");
+            }
+            out.append("]}\n");
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] csv() {
+        StringBuilder out = new StringBuilder("task_id,title,description,completed,priority,comment_text\n");
+        for (int i = 1; i <= TASKS; i++) {
+            for (int c = 1; c <= COMMENTS_PER_TASK; c++) {
+                out.append(i).append(",Imported task ").append(i).append(",\"Description of task ").append(i)
+                        .append("\",").append(i % 3 == 0).append(',').append(BenchmarkData.priority(i))
+                        .append(",Comment ").append(c).append(" on task ").append(i).append('\n');
+            }
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
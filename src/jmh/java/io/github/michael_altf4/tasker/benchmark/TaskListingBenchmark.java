@@ -0,0 +1,103 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.TaskManagerApplication;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskPage;
+import io.github.michael_altf4.tasker.service.TaskService;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} listings for one user against embedded H2 holding 1k/10k/100k of their
+ * tasks. The legacy listing is capped at {@link TaskService#LEGACY_LIST_LIMIT} rows, so this
+ * tracks how well the indexes keep it flat as the table grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskListingBenchmark {
+
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup
+    public void setUp() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        context = new SpringApplicationBuilder(TaskManagerApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        taskService = context.getBean(TaskService.class);
+
+        User user = context.getBean(UserRepository.class).save(new User("benchmark", "not-used"));
+        seed(context.getBean(JdbcTemplate.class), user.getId());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskResource> legacyList() {
+        return taskService.getAllTasks();
+    }
+
+    @Benchmark
+    public TaskPage firstPage() {
+        return taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, null, 20);
+    }
+
+    @Benchmark
+    public TaskPage firstPageInManualOrder() {
+        return taskService.getTasks(TaskFilter.NONE, TaskSort.POSITION, null, 20);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, long userId) {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long i = 1; i <= taskCount; i++) {
+            batch.add(new Object[]{"Task " + i, "Description of task " + i, i % 3 == 0,
+                    BenchmarkData.priority(i).name(), Timestamp.valueOf(start.plusSeconds(i)), userId, i * 1024});
+            if (batch.size() == INSERT_BATCH || i == taskCount) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO task (title, description, completed, priority, created_at, user_id, position)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)""", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.michael_altf4.tasker.benchmark;
+
+import io.github.michael_altf4.tasker.TaskManagerApplication;
+import io.github.michael_altf4.tasker.service.SearchHit;
+import io.github.michael_altf4.tasker.service.TaskPage;
+import io.github.michael_altf4.tasker.service.TaskSearchIndex;
+import io.github.michael_altf4.tasker.service.TaskSearchService;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over 100k/1M rows on embedded H2 with the in-memory index: half tasks, half
+ * comments, spread over {@value #USERS} users. Words follow a skewed distribution, so
+ * {@code "alpha"} is in most documents and the numbered words are rare. Every user's index is
+ * built during setup; sampled percentiles are per search. Target: p99 under 5 ms at 1M rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class TaskSearchBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int INSERT_BATCH = 5000;
+    private static final String[] COMMON_WORDS = {"alpha", "milk", "report", "call", "meeting", "review",
+            "bread", "invoice", "garden", "train", "doctor", "letter", "budget", "draft", "server", "backup"};
+    private static final int RARE_WORDS = 5000;
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskSearchIndex searchIndex;
+    private TaskSearchService searchService;
+    private long firstUserId;
+    private int nextUser;
+
+    @Setup
+    public void setUp() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        context = new SpringApplicationBuilder(TaskManagerApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasker.search.engine=memory",
+                "--tasker.search.memory.maximum-users=" + USERS,
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        searchIndex = context.getBean(TaskSearchIndex.class);
+        searchService = context.getBean(TaskSearchService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User("search-" + i, "not-used")));
+        }
+        firstUserId = users.get(0).getId();
+        seed(context.getBean(JdbcTemplate.class));
+        for (int i = 0; i < USERS; i++) {
+            searchIndex.search(firstUserId + i, "alpha", null, 1);
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(users.get(0), null, users.get(0).getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> commonWord() {
+        return searchIndex.search(nextUser(), "alpha", null, 21);
+    }
+
+    @Benchmark
+    public List<SearchHit> twoWords() {
+        return searchIndex.search(nextUser(), "milk budget", null, 21);
+    }
+
+    @Benchmark
+    public List<SearchHit> rareWord() {
+        return searchIndex.search(nextUser(), "w" + (nextUser % RARE_WORDS), null, 21);
+    }
+
+    /** Full request path for one user: validation, index lookup and loading the page of tasks. */
+    @Benchmark
+    public TaskPage firstPage() {
+        return searchService.search("alpha", null, 20);
+    }
+
+    private long nextUser() {
+        nextUser = (nextUser + 1) % USERS;
+        return firstUserId + nextUser;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        int tasks = rows / 2;
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long i = 1; i <= tasks; i++) {
+            batch.add(new Object[]{text(random, 4), text(random, 12), Timestamp.valueOf(start.plusSeconds(i)),
+                    firstUserId + i % USERS, i * 1024});
+            if (batch.size() == INSERT_BATCH || i == tasks) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO task (title, description, created_at, user_id, position)
+                        VALUES (?, ?, ?, ?, ?)""", batch);
+                batch.clear();
+            }
+        }
+        long firstTaskId = jdbcTemplate.queryForObject("SELECT min(id) FROM task", Long.class);
+        for (long i = 0; i < rows - tasks; i++) {
+            long taskId = firstTaskId + i % tasks;
+            batch.add(new Object[]{text(random, 8), Timestamp.valueOf(start.plusSeconds(i)), taskId,
+                    firstUserId + (taskId - firstTaskId + 1) % USERS});
+            if (batch.size() == INSERT_BATCH || i == rows - tasks - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO comment (text, created_at, todo_item_id, user_id) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            // cubing skews the choice towards the first common words
+            double skew = Math.pow(random.nextDouble(), 3);
+            int word = (int) (skew * (COMMON_WORDS.length + RARE_WORDS));
+            text.append(word < COMMON_WORDS.length ? COMMON_WORDS[word] : "w" + (word - COMMON_WORDS.length));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the dataset with plain JDBC batches and explicit ids, bypassing JPA. User {@code u} owns
+ * the task ids {@link LoadTestSettings#firstTaskId(int)} onward, so clients can address them
+ * without a lookup. The id sequences are moved past the seeded rows afterwards so requests
+ * creating rows through Hibernate do not collide with them.
+ */
+class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int SEQUENCE_INCREMENT = 50;
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void seed(LoadTestSettings settings, String passwordHash) {
+        // every fourth task is seeded completed, and the counters are seeded to match
+        long completed = (settings.tasksPerUser() + 3) / 4;
+        Batch users = new Batch("""
+                INSERT INTO app_user (id, username, password, open_task_count, completed_task_count)
+                VALUES (?, ?, ?, ?, ?)""");
+        for (int user = 1; user <= settings.users(); user++) {
+            users.add(user, LoadTestSettings.username(user), passwordHash, settings.tasksPerUser() - completed, completed);
+        }
+        users.flush();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        Batch tasks = new Batch("""
+                INSERT INTO task (id, title, description, completed, priority, created_at, user_id, position, comment_count)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""");
+        Batch comments = new Batch("INSERT INTO comment (id, text, created_at, todo_item_id, user_id) VALUES (?, ?, ?, ?, ?)");
+        long commentId = 0;
+        for (int user = 1; user <= settings.users(); user++) {
+            long taskId = settings.firstTaskId(user);
+            for (int i = 0; i < settings.tasksPerUser(); i++, taskId++) {
+                Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(taskId));
+                tasks.add(taskId, "Task " + taskId, "Seeded task " + i + " of " + LoadTestSettings.username(user),
+                        i % 4 == 0, PRIORITIES[i % PRIORITIES.length], createdAt, user, (long) (i + 1) * 1024,
+                        settings.commentsPerTask());
+                for (int c = 0; c < settings.commentsPerTask(); c++) {
+                    comments.add(++commentId, "Comment " + c + " on task " + taskId, createdAt, taskId, user);
+                }
+            }
+            tasks.flush();
+            comments.flush();
+        }
+
+        restartSequence("app_user_seq", settings.users());
+        restartSequence("task_seq", (long) settings.users() * settings.tasksPerUser());
+        restartSequence("comment_seq", commentId);
+    }
+
+    private void restartSequence(String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_INCREMENT));
+    }
+
+    private class Batch {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+enum Endpoint {
+
+    LIST_TASKS("GET /api/tasks/page", false, 4),
+    GET_TASK("GET /api/tasks/{id}", false, 3),
+    LIST_COMMENTS("GET /api/comments/task/{id}/page", false, 3),
+    CREATE_TASK("POST /api/tasks", true, 1),
+    UPDATE_TASK("PUT /api/tasks/{id}", true, 2),
+    CREATE_COMMENT("POST /api/comments/task/{id}", true, 1);
+
+    private final String label;
+    private final boolean write;
+    private final int weight;
+
+    Endpoint(String label, boolean write, int weight) {
+        this.label = label;
+        this.write = write;
+        this.weight = weight;
+    }
+
+    String label() {
+        return label;
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    int weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@code loadtest.subscribers} idle {@code /api/events} streams open while the clients run,
+ * spread round-robin over the seeded users, and counts the change events they receive. Streams are
+ * read with non-blocking line subscribers, so they cost no client threads.
+ */
+class EventSubscribers {
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger disconnected = new AtomicInteger();
+    private final AtomicLong events = new AtomicLong();
+    private final int count;
+
+    EventSubscribers(int count) {
+        this.count = count;
+    }
+
+    void open(HttpClient http, String baseUrl, LoadTestSettings settings, String password) throws Exception {
+        // One stream per user first, so the rest authenticate from the credential cache instead of
+        // all running BCrypt at once
+        int firstRound = Math.min(count, settings.users());
+        open(http, baseUrl, settings, password, 0, firstRound);
+        open(http, baseUrl, settings, password, firstRound, count);
+        System.out.printf("Opened %d event streams%n", connected.get());
+    }
+
+    private void open(HttpClient http, String baseUrl, LoadTestSettings settings, String password, int from, int to)
+            throws Exception {
+        List<CompletableFuture<Void>> opened = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            String credentials = LoadTestSettings.username(i % settings.users() + 1) + ":" + password;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/events"))
+                    .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                    .header("Accept", "text/event-stream")
+                    .build();
+            CompletableFuture<Void> stream = new CompletableFuture<>();
+            http.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new Lines(stream)));
+            opened.add(stream);
+        }
+        CompletableFuture.allOf(opened.toArray(CompletableFuture[]::new))
+                .get(Duration.ofSeconds(30 + (to - from) / 50).toSeconds(), TimeUnit.SECONDS);
+    }
+
+    LoadTestReport.SubscriberResult result() {
+        return new LoadTestReport.SubscriberResult(count, connected.get(), disconnected.get(), events.get());
+    }
+
+    private final class Lines implements Flow.Subscriber<String> {
+
+        private final CompletableFuture<Void> opened;
+
+        private Lines(CompletableFuture<Void> opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.equals(":connected") && opened.complete(null)) {
+                connected.incrementAndGet();
+            } else if (line.startsWith("event:")) {
+                events.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            onComplete();
+        }
+
+        @Override
+        public void onComplete() {
+            opened.complete(null);
+            disconnected.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * One simulated user issuing requests back to back until the deadline. Reads and writes are picked
+ * with the configured write ratio, then by {@link Endpoint#weight()} within each group. Only
+ * requests started after the warm-up are recorded.
+ */
+class LoadClient implements Callable<Map<Endpoint, LatencySamples>> {
+
+    private static final List<Endpoint> READS = new ArrayList<>();
+    private static final List<Endpoint> WRITES = new ArrayList<>();
+
+    static {
+        for (Endpoint endpoint : Endpoint.values()) {
+            for (int i = 0; i < endpoint.weight(); i++) {
+                (endpoint.isWrite() ? WRITES : READS).add(endpoint);
+            }
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final String authorization;
+    private final long firstTaskId;
+    private final SplittableRandom random;
+    private final long warmupEnd;
+    private final long deadline;
+    private final Map<Endpoint, LatencySamples> samples = new EnumMap<>(Endpoint.class);
+
+    LoadClient(HttpClient http, String baseUrl, LoadTestSettings settings, int user, String password,
+               long seed, long warmupEnd, long deadline) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        String credentials = LoadTestSettings.username(user) + ":" + password;
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        this.firstTaskId = settings.firstTaskId(user);
+        this.random = new SplittableRandom(seed);
+        this.warmupEnd = warmupEnd;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public Map<Endpoint, LatencySamples> call() throws InterruptedException {
+        long start;
+        while ((start = System.nanoTime()) < deadline) {
+            Endpoint endpoint = next();
+            boolean success;
+            try {
+                int status = http.send(request(endpoint), HttpResponse.BodyHandlers.discarding()).statusCode();
+                success = status >= 200 && status < 300;
+            } catch (IOException e) {
+                success = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (start >= warmupEnd) {
+                samples.computeIfAbsent(endpoint, e -> new LatencySamples()).record(elapsed, success);
+            }
+        }
+        return samples;
+    }
+
+    private Endpoint next() {
+        List<Endpoint> group = !WRITES.isEmpty() && random.nextDouble() < settings.writeRatio() ? WRITES : READS;
+        return group.get(random.nextInt(group.size()));
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        long taskId = firstTaskId + random.nextInt(settings.tasksPerUser());
+        return switch (endpoint) {
+            case LIST_TASKS -> get("/api/tasks/page?limit=20");
+            case GET_TASK -> get("/api/tasks/" + taskId);
+            case LIST_COMMENTS -> get("/api/comments/task/" + taskId + "/page?limit=20");
+            case CREATE_TASK -> send("POST", "/api/tasks",
+                    "{\"title\":\"Load task " + random.nextInt() + "\",\"priority\":\"MEDIUM\"}");
+            case UPDATE_TASK -> send("PUT", "/api/tasks/" + taskId,
+                    "{\"completed\":" + random.nextBoolean() + "}");
+            case CREATE_COMMENT -> send("POST", "/api/comments/task/" + taskId,
+                    "{\"text\":\"Load comment " + random.nextInt() + "\"}");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput and latency percentiles of one run, printed as a table and optionally
+ * written as JSON so runs (e.g. platform vs virtual threads) can be compared.
+ */
+record LoadTestReport(String threads, int clients, double measuredSeconds, List<EndpointResult> endpoints,
+                      SubscriberResult subscribers) {
+
+    record EndpointResult(String endpoint, int requests, long errors, double throughput,
+                          double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    record SubscriberResult(int subscribers, int connected, int disconnected, long events) {
+    }
+
+    static LoadTestReport of(String threads, int clients, Duration measured, Map<Endpoint, LatencySamples> samples,
+                             SubscriberResult subscribers) {
+        double seconds = measured.toNanos() / 1e9;
+        List<EndpointResult> results = new ArrayList<>();
+        LatencySamples total = new LatencySamples();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencySamples endpointSamples = samples.get(endpoint);
+            if (endpointSamples != null && endpointSamples.count() > 0) {
+                results.add(result(endpoint.label(), endpointSamples, seconds));
+                total.addAll(endpointSamples);
+            }
+        }
+        if (total.count() > 0) {
+            results.add(result("TOTAL", total, seconds));
+        }
+        return new LoadTestReport(threads, clients, seconds, results, subscribers);
+    }
+
+    private static EndpointResult result(String label, LatencySamples samples, double seconds) {
+        long[] sorted = samples.sorted();
+        return new EndpointResult(label, sorted.length, samples.errors(), sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nThreads: %s, clients: %d, measured: %.1fs%n", threads, clients, measuredSeconds);
+        out.printf("%-34s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointResult r : endpoints) {
+            out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughput(),
+                    r.p50Ms(), r.p90Ms(), r.p99Ms(), r.p999Ms(), r.maxMs());
+        }
+        if (subscribers != null) {
+            out.printf("Event streams: %d opened of %d, %d closed early, %d events received%n",
+                    subscribers.connected(), subscribers.subscribers(), subscribers.disconnected(), subscribers.events());
+        }
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import io.github.michael_altf4.tasker.TaskManagerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the application on an embedded H2 database with the test configuration, seeds
+ * users × tasks × comments and runs {@link LoadClient}s against it over real HTTP, optionally with
+ * idle {@link EventSubscribers} listening to the change feed.
+ * Started by {@code ./gradlew loadTest}.
+ */
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ConfigurableApplicationContext app = SpringApplication.run(TaskManagerApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN");
+        try {
+            boolean virtual = Threading.VIRTUAL.isActive(app.getEnvironment());
+            if (settings.virtualThreads() && !virtual) {
+                System.out.println("Virtual threads need Java 21+; running on platform threads");
+            }
+
+            long seedStart = System.nanoTime();
+            String passwordHash = app.getBean(PasswordEncoder.class).encode(PASSWORD);
+            new DatasetSeeder(app.getBean(JdbcTemplate.class)).seed(settings, passwordHash);
+            System.out.printf("Seeded %d users, %d tasks, %d comments in %d ms%n",
+                    settings.users(),
+                    (long) settings.users() * settings.tasksPerUser(),
+                    (long) settings.users() * settings.tasksPerUser() * settings.commentsPerTask(),
+                    Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            EventSubscribers subscribers = null;
+            if (settings.subscribers() > 0) {
+                subscribers = new EventSubscribers(settings.subscribers());
+                subscribers.open(http, baseUrl, settings, PASSWORD);
+            }
+            Map<Endpoint, LatencySamples> samples = run(http, settings, baseUrl);
+
+            LoadTestReport report = LoadTestReport.of(virtual ? "virtual" : "platform", settings.clients(),
+                    settings.duration(), samples, subscribers == null ? null : subscribers.result());
+            report.print(System.out);
+            if (settings.report() != null) {
+                report.write(Path.of(settings.report()));
+                System.out.println("Report written to " + settings.report());
+            }
+        } finally {
+            app.close();
+        }
+    }
+
+    private static Map<Endpoint, LatencySamples> run(HttpClient http, LoadTestSettings settings, String baseUrl) throws Exception {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long deadline = warmupEnd + settings.duration().toNanos();
+        System.out.printf("Running %d clients: %ds warm-up, %ds measured, write ratio %.2f%n", settings.clients(),
+                settings.warmup().toSeconds(), settings.duration().toSeconds(), settings.writeRatio());
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.clients());
+        try {
+            List<Future<Map<Endpoint, LatencySamples>>> futures = new ArrayList<>();
+            for (int client = 0; client < settings.clients(); client++) {
+                int user = client % settings.users() + 1;
+                futures.add(executor.submit(new LoadClient(http, baseUrl, settings, user, PASSWORD,
+                        client, warmupEnd, deadline)));
+            }
+            Map<Endpoint, LatencySamples> merged = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, LatencySamples>> future : futures) {
+                future.get().forEach((endpoint, clientSamples) ->
+                        merged.computeIfAbsent(endpoint, e -> new LatencySamples()).addAll(clientSamples));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
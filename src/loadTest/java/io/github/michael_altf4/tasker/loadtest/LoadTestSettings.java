@@ -0,0 +1,50 @@
+package io.github.michael_altf4.tasker.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties (the Gradle task maps
+ * {@code -P} properties onto them).
+ */
+record LoadTestSettings(
+        int users,
+        int tasksPerUser,
+        int commentsPerTask,
+        int clients,
+        int subscribers,
+        Duration warmup,
+        Duration duration,
+        double writeRatio,
+        boolean virtualThreads,
+        String report) {
+
+    static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.tasks", 200),
+                Integer.getInteger("loadtest.comments", 5),
+                Integer.getInteger("loadtest.clients", 64),
+                Integer.getInteger("loadtest.subscribers", 0),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 60)),
+                Double.parseDouble(System.getProperty("loadtest.write-ratio", "0.2")),
+                "virtual".equalsIgnoreCase(System.getProperty("loadtest.threads", "platform")),
+                System.getProperty("loadtest.report"));
+        if (settings.users < 1 || settings.tasksPerUser < 1 || settings.commentsPerTask < 0 || settings.clients < 1
+                || settings.subscribers < 0) {
+            throw new IllegalArgumentException("users, tasks and clients must be positive, comments and subscribers non-negative");
+        }
+        if (settings.writeRatio < 0 || settings.writeRatio > 1) {
+            throw new IllegalArgumentException("write-ratio must be between 0 and 1");
+        }
+        return settings;
+    }
+
+    long firstTaskId(int user) {
+        return (long) (user - 1) * tasksPerUser + 1;
+    }
+
+    static String username(int user) {
+        return "load-user-" + user;
+    }
+}
@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates the sequences behind pooled id generation. Hibernate's pooled optimizer treats each
+ * sequence value as the upper bound of a block of {@link #ALLOCATION_SIZE} ids, so every sequence
+ * starts one block above the current maximum id. Written in Java because neither H2 nor PostgreSQL
+ * accepts a sub-query in {@code START WITH}.
+ */
+public class V3__Pooled_id_sequences extends BaseJavaMigration {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("app_user_seq", "app_user");
+        SEQUENCES.put("task_seq", "task");
+        SEQUENCES.put("comment_seq", "comment");
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + sequence.getValue())) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + sequence.getKey()
+                        + " START WITH " + (maxId + ALLOCATION_SIZE)
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
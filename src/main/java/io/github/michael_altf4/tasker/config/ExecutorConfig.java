@@ -0,0 +1,82 @@
+package io.github.michael_altf4.tasker.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Executors for work that blocks on a client's socket, kept off Spring Boot's shared
+ * {@code applicationTaskExecutor} so a few slow clients cannot starve the tasks queued there or each other.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String CHANGE_FEED_EXECUTOR = "changeFeedExecutor";
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+    /**
+     * Drains event stream queues. A virtual thread per drain when virtual threads are enabled,
+     * otherwise {@code tasker.events.send-threads} platform threads; each connection has at most
+     * one drain queued, so the queue is bounded by the number of connections.
+     */
+    @Bean(CHANGE_FEED_EXECUTOR)
+    public AsyncTaskExecutor changeFeedExecutor(Environment environment,
+                                                @Value("${tasker.events.send-threads:64}") int sendThreads) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("events-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("events-");
+        executor.setCorePoolSize(sendThreads);
+        executor.setMaxPoolSize(sendThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Writes streamed response bodies (exports). Each running export holds a thread, a pooled
+     * connection and a transaction until the client has read it all, so at most
+     * {@code tasker.export.max-concurrent} run at once and {@code tasker.export.queue-capacity} wait;
+     * further exports are rejected with 503.
+     */
+    @Bean(EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor(@Value("${tasker.export.max-concurrent:4}") int maxConcurrent,
+                                                 @Value("${tasker.export.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("export-");
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * {@code StreamingResponseBody} runs as an MVC async request: on the export executor, and cut off
+     * after {@code tasker.export.timeout} instead of the container's 30 second default. Event streams
+     * set their own timeout and are not affected.
+     */
+    @Bean
+    public WebMvcConfigurer streamingResponseConfigurer(@Qualifier(EXPORT_EXECUTOR) ThreadPoolTaskExecutor exportExecutor,
+                                                        @Value("${tasker.export.timeout:30m}") Duration timeout) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(exportExecutor);
+                configurer.setDefaultTimeout(timeout.toMillis());
+            }
+        };
+    }
+}
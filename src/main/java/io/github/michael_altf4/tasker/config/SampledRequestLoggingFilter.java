@@ -0,0 +1,66 @@
+package io.github.michael_altf4.tasker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes one structured line per HTTP request (method, path, status, duration). Server errors and
+ * slow requests are always logged at WARN; everything else only at the configured sample rate, so
+ * log volume stays flat however much traffic there is.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SampledRequestLoggingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public SampledRequestLoggingFilter(
+            @Value("${tasker.logging.requests.sample-rate:0.01}") double sampleRate,
+            @Value("${tasker.logging.requests.slow-threshold:1s}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = response.getStatus();
+            boolean notable = status >= 500 || elapsed >= slowThresholdNanos;
+            if (notable ? log.isWarnEnabled() : log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                long millis = Duration.ofNanos(elapsed).toMillis();
+                (notable ? log.atWarn() : log.atInfo())
+                        .addKeyValue("http.method", request.getMethod())
+                        .addKeyValue("http.path", request.getRequestURI())
+                        .addKeyValue("http.status", status)
+                        .addKeyValue("duration.ms", millis)
+                        .log("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.startsWith("/css/") || path.startsWith("/js/") || path.startsWith("/images/")
+                || path.startsWith("/actuator/");
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.michael_altf4.tasker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.github.michael_altf4.tasker.storage.model.Comment;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepositoryCustom;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache on in-process Caffeine caches behind JCache. Every region is created
+ * here with a size bound and a time-to-live, and Hibernate fails on any region it does not find, so
+ * no cache is left unbounded. Each region's Caffeine statistics are published as {@code cache.*}
+ * meters tagged with the region name, next to Hibernate's {@code hibernate.second.level.cache.*}
+ * and {@code hibernate.cache.query.*} counters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    static final List<String> ENTITY_REGIONS = List.of(
+            Task.CACHE_REGION, Task.COMMENTS_CACHE_REGION, Comment.CACHE_REGION, User.CACHE_REGION);
+    static final List<String> QUERY_REGIONS = List.of(
+            TaskRepositoryCustom.PAGE_CACHE_REGION, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    /**
+     * One manager per application context, so test contexts never share or close each other's regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${tasker.second-level-cache.maximum-size:50000}") long maximumSize,
+            @Value("${tasker.second-level-cache.ttl:10m}") Duration ttl,
+            @Value("${tasker.second-level-cache.query-maximum-size:10000}") long queryMaximumSize,
+            @Value("${tasker.second-level-cache.query-ttl:1m}") Duration queryTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("tasker:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        ENTITY_REGIONS.forEach(region -> cacheManager.createCache(region, region(maximumSize, ttl)));
+        QUERY_REGIONS.forEach(region -> cacheManager.createCache(region, region(queryMaximumSize, queryTtl)));
+        // one entry per table, never expired: a missing entry reads as "never written" and would pass stale results
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(10_000, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : secondLevelCacheManager.getCacheNames()) {
+                com.github.benmanes.caffeine.cache.Cache<?, ?> cache = secondLevelCacheManager.getCache(region)
+                        .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, region);
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setNativeStatisticsEnabled(true)
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(ttl == null ? OptionalLong.empty() : OptionalLong.of(ttl.toNanos()));
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.michael_altf4.tasker.config;
 
+import io.github.michael_altf4.tasker.security.CachingDaoAuthenticationProvider;
+import io.github.michael_altf4.tasker.security.CredentialCache;
+import io.github.michael_altf4.tasker.service.UserService;
 import io.github.michael_altf4.tasker.storage.model.User;
-import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +19,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -24,18 +32,37 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
-    @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
+    private UserDetailsService userDetailsService(UserService userService) {
         return new UserDetailsService() {
             @Override
             public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-                User user = userRepository.findByUsername(username)
-                        .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден: " + username));
+                User user = userService.findByUsername(username);
+                if (user == null) {
+                    throw new UsernameNotFoundException("Пользователь не найден: " + username);
+                }
                 return user;
             }
         };
     }
 
+    @Bean
+    public AuthenticationProvider authenticationProvider(
+            UserService userService,
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${tasker.security.credential-cache.enabled:true}") boolean credentialCacheEnabled,
+            @Value("${tasker.security.credential-cache.maximum-size:10000}") long maximumSize,
+            @Value("${tasker.security.credential-cache.ttl:10m}") Duration ttl) {
+        UserDetailsService userDetailsService = userDetailsService(userService);
+        if (!credentialCacheEnabled) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+            provider.setUserDetailsService(userDetailsService);
+            return provider;
+        }
+        CredentialCache credentialCache = new CredentialCache(meterRegistry, maximumSize, ttl);
+        return new CachingDaoAuthenticationProvider(userDetailsService, passwordEncoder, credentialCache);
+    }
+
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
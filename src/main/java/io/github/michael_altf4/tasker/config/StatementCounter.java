@@ -0,0 +1,70 @@
+package io.github.michael_altf4.tasker.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Per-thread tally of the SQL statements issued while an HTTP request is being served, fed by
+ * {@link StatementCountingDataSource}.
+ * Statements are grouped by shape (literals and IN-list lengths folded), so the same query issued
+ * once per row of a previous result shows up as one shape with a high count.
+ */
+public final class StatementCounter {
+
+    /** Response header carrying the number of statements a request issued. */
+    public static final String HEADER = "X-Statement-Count";
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private StatementCounter() {
+    }
+
+    static Statements start() {
+        Statements statements = new Statements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static void record(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(shape(sql));
+        }
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    static final class Statements {
+
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int total;
+
+        private void record(String shape) {
+            total++;
+            shapes.merge(shape, 1, Integer::sum);
+        }
+
+        int total() {
+            return total;
+        }
+
+        Map<String, Integer> shapes() {
+            return shapes;
+        }
+    }
+}
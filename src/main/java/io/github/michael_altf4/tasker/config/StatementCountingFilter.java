@@ -0,0 +1,136 @@
+package io.github.michael_altf4.tasker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the statements each request issues (see {@link StatementCounter}), publishes them as the
+ * {@code tasker.request.statements} summary, returns the count in {@link StatementCounter#HEADER},
+ * and warns about requests over budget or repeating one statement shape, the usual N+1 signature.
+ */
+@Slf4j
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int repeatThreshold;
+
+    public StatementCountingFilter(MeterRegistry meterRegistry, int maxStatements, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.Statements statements = StatementCounter.start();
+        CountHeaderResponse countingResponse = new CountHeaderResponse(response, statements);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            StatementCounter.stop();
+            countingResponse.writeCountHeader();
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementCounter.Statements statements) {
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern : "UNKNOWN";
+        DistributionSummary.builder("tasker.request.statements")
+                .description("SQL statements issued per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.total());
+
+        if (statements.total() > maxStatements) {
+            log.warn("{} {} issued {} SQL statements (budget {})",
+                    request.getMethod(), request.getRequestURI(), statements.total(), maxStatements);
+        }
+        statements.shapes().forEach((shape, count) -> {
+            if (count >= repeatThreshold) {
+                Counter.builder("tasker.request.statements.repeated")
+                        .description("Requests that repeated one statement shape at least the threshold number of times")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} {} repeated the same statement {} times, possible N+1: {}",
+                        request.getMethod(), request.getRequestURI(), count, shape);
+            }
+        });
+    }
+
+    /**
+     * Sets the count header right before the response is committed, which for a normal MVC
+     * response is after the handler has run all of its queries.
+     */
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+
+        private final StatementCounter.Statements statements;
+        private boolean headerWritten;
+
+        CountHeaderResponse(HttpServletResponse response, StatementCounter.Statements statements) {
+            super(response);
+            this.statements = statements;
+        }
+
+        void writeCountHeader() {
+            if (!headerWritten && !isCommitted()) {
+                headerWritten = true;
+                setHeader(StatementCounter.HEADER, String.valueOf(statements.total()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeCountHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeCountHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeCountHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeCountHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.michael_altf4.tasker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement counting for development and tests, switched on with
+ * {@code tasker.sql-inspector.enabled=true}. Statements are counted on the connections of the
+ * {@link DataSource}, so {@code JdbcTemplate} work (change numbers, counters, tombstones) is counted
+ * along with Hibernate's.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tasker.sql-inspector.enabled", havingValue = "true")
+public class StatementInspectionConfig {
+
+    @Bean
+    static BeanPostProcessor statementCountingPostProcessor() {
+        return new StatementCountingPostProcessor();
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountingFilter> statementCountingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${tasker.sql-inspector.max-statements:10}") int maxStatements,
+            @Value("${tasker.sql-inspector.repeat-threshold:3}") int repeatThreshold) {
+        FilterRegistrationBean<StatementCountingFilter> registration = new FilterRegistrationBean<>(
+                new StatementCountingFilter(meterRegistry, maxStatements, repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Runs after {@link VirtualThreadConfig}'s limiter has wrapped the pool, so the limiter still
+     * finds Hikari and the count covers every connection handed out.
+     */
+    private static final class StatementCountingPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                return new StatementCountingDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
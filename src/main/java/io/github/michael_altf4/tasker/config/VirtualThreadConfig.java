@@ -0,0 +1,49 @@
+package io.github.michael_altf4.tasker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true} on Java 21+. Spring Boot then runs
+ * Tomcat requests and {@code @Scheduled} work on virtual threads; this adds a limiter in front
+ * of Hikari so thousands of them cannot stampede a pool of a few connections.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new ConnectionLimitingPostProcessor();
+    }
+
+    /**
+     * Ordered first, so data source wrappers registered elsewhere go around the limiter, not between it and Hikari.
+     */
+    private static final class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                log.info("Limiting virtual threads to {} concurrent connections", hikari.getMaximumPoolSize());
+                return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                        Duration.ofMillis(hikari.getConnectionTimeout()));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.michael_altf4.tasker.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    private final String errorCode;
+
+    public PreconditionFailedException(String errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
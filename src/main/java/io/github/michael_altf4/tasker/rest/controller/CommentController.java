@@ -1,6 +1,11 @@
 
 package io.github.michael_altf4.tasker.rest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.michael_altf4.tasker.exception.ErrorResponse;
+import io.github.michael_altf4.tasker.rest.resource.CommentPageResource;
 import io.github.michael_altf4.tasker.rest.resource.CommentResource;
 import io.github.michael_altf4.tasker.rest.resource.CreateCommentResource;
 import io.github.michael_altf4.tasker.rest.resource.UpdateCommentResource;
@@ -15,37 +20,113 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/comments")
 @Tag(name = "Comments", description = "Manage comments for task items")
 @RequiredArgsConstructor
 public class CommentController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final CommentService commentService;
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
 
 
 
+    @Deprecated
     @GetMapping("/task/{todoId}")
-    @Operation(summary = "Get all comments for a task item")
+    @Operation(summary = "Get oldest comments for a task item (at most " + CommentService.LEGACY_LIST_LIMIT + ")",
+            description = "Deprecated: use GET /api/comments/task/{todoId}/page", deprecated = true)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "List of comments", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "Comments unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Task item not found")
+    })
+    public ResponseEntity<List<CommentResource>> getComments(
+            @Parameter(description = "ID of the todo item", example = "1") @PathVariable Long todoId,
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> version = commentService.getCommentsVersion(todoId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = EntityTags.of(version.get());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
+        }
+        return commentService.getCommentsByTodoId(todoId)
+                .map(comments -> ResponseEntity.ok().eTag(etag).cacheControl(EntityTags.REVALIDATE).body(comments))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/task/{todoId}/page")
+    @Operation(summary = "Get a page of comments for a task item, oldest first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of comments", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CommentPageResource.class))),
+            @ApiResponse(responseCode = "304", description = "Comments unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Task item not found")
+    })
+    public ResponseEntity<CommentPageResource> getCommentPage(
+            @Parameter(description = "ID of the todo item", example = "1") @PathVariable Long todoId,
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "50") @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> version = commentService.getCommentsVersion(todoId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = EntityTags.of(version.get());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
+        }
+        return commentService.getComments(todoId, cursor, limit)
+                .map(page -> {
+                    CommentPageResource resource = new CommentPageResource();
+                    resource.setItems(page.comments());
+                    resource.setNextCursor(page.nextCursor());
+                    return ResponseEntity.ok().eTag(etag).cacheControl(EntityTags.REVALIDATE).body(resource);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/task/{todoId}/export", produces = NDJSON)
+    @Operation(summary = "Stream all comments for a task item as newline-delimited JSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One comment per line, oldest first", content = @Content(mediaType = NDJSON)),
             @ApiResponse(responseCode = "404", description = "Task item not found")
     })
-    public List<CommentResource> getComments(
+    public ResponseEntity<StreamingResponseBody> exportComments(
             @Parameter(description = "ID of the todo item", example = "1") @PathVariable Long todoId) {
-        log.debug("Fetching comments for task ID={}", todoId);
-        return commentService.getCommentsByTodoId(todoId).stream()
-                .map(this::toResource)
-                .toList();
+        if (!taskService.isOwnedByCurrentUser(todoId)) {
+            return ResponseEntity.notFound().build();
+        }
+        ObjectWriter writer = objectMapper.writerFor(CommentResource.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            commentService.forEachComment(todoId, comment -> {
+                try {
+                    writer.writeValue(out, comment);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @PostMapping("/task/{todoId}")
@@ -62,7 +143,6 @@ public class CommentController {
                     Comment comment = new Comment();
                     comment.setText(commentResource.getText());
                     Comment saved = commentService.createComment(comment, todoItem);
-                    log.info("Created comment ID={} for task ID={}", saved.getId(), todoId);
                     return ResponseEntity.ok(toResource(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -79,10 +159,8 @@ public class CommentController {
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "New comment text", required = true) @Valid @RequestBody UpdateCommentResource commentResource) {
         Comment updated = commentService.updateComment(id, commentResource.getText());
         if (updated != null) {
-            log.info("Updated comment ID={}", id);
             return ResponseEntity.ok(toResource(updated));
         } else {
-            log.warn("Attempt to update non-existent comment ID={}", id);
             return ResponseEntity.notFound().build();
         }
     }
@@ -96,7 +174,6 @@ public class CommentController {
     public ResponseEntity<Void> deleteComment(
             @Parameter(description = "Comment ID", example = "1") @PathVariable Long id) {
         commentService.deleteComment(id);
-        log.info("Deleted comment ID={}", id);
         return ResponseEntity.noContent().build();
     }
 
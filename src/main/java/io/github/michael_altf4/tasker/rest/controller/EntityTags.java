@@ -0,0 +1,63 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags built from the change versions kept by the services, so a conditional GET is
+ * answered from one indexed lookup before any rows are read.
+ */
+final class EntityTags {
+
+    /** Browsers keep the body but revalidate it on every use; shared caches never store it. */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private EntityTags() {
+    }
+
+    static String of(String version) {
+        return "\"" + version + "\"";
+    }
+
+    static String ofTask(Long id, long version) {
+        return of(id + "." + version);
+    }
+
+    /**
+     * Task version named by an If-Match header: null when the header is absent or {@code *}, and -1,
+     * which no task ever has, when none of its strong tags belongs to this task.
+     */
+    static Long ifMatchVersion(String ifMatch, Long id) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String prefix = id + ".";
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (!tag.weak() && tag.tag().startsWith(prefix)) {
+                try {
+                    return Long.parseLong(tag.tag().substring(prefix.length()));
+                } catch (NumberFormatException ignored) {
+                    // not one of our tags, try the next one
+                }
+            }
+        }
+        return -1L;
+    }
+
+    static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+}
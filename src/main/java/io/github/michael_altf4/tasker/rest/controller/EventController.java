@@ -0,0 +1,36 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import io.github.michael_altf4.tasker.rest.resource.ChangeEventResource;
+import io.github.michael_altf4.tasker.service.ChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@Tag(name = "Events", description = "Live change notifications")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final ChangeFeed changeFeed;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream change notifications for the current user",
+            description = "Server-Sent Events named 'task' or 'comment', with the change number as the event id, sent after each committed write. "
+                    + "Comments are sent as heartbeats. Clients that fall behind are disconnected and should resync with GET /api/sync when they reconnect.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = ChangeEventResource.class)))
+    })
+    public SseEmitter events() {
+        return changeFeed.subscribe();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import io.github.michael_altf4.tasker.exception.ErrorResponse;
+import io.github.michael_altf4.tasker.rest.resource.SyncResource;
+import io.github.michael_altf4.tasker.service.SyncChanges;
+import io.github.michael_altf4.tasker.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+@Tag(name = "Sync", description = "Incremental sync for offline and mobile clients")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping
+    @Operation(summary = "Get tasks and comments changed or deleted since a sync token",
+            description = "Without a token, or with one older than the tombstone retention, returns everything with reset=true.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes and the token for the next sync", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SyncResource.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed token", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public SyncResource sync(
+            @Parameter(description = "token of the previous sync") @RequestParam(required = false) String since) {
+        SyncChanges changes = syncService.changesSince(since);
+        SyncResource resource = new SyncResource();
+        resource.setTasks(changes.tasks());
+        resource.setComments(changes.comments());
+        resource.setDeletedTaskIds(changes.deletedTaskIds());
+        resource.setDeletedCommentIds(changes.deletedCommentIds());
+        resource.setToken(changes.token());
+        resource.setReset(changes.reset());
+        return resource;
+    }
+}
@@ -1,18 +1,44 @@
 package io.github.michael_altf4.tasker.rest.controller;
 
+import io.github.michael_altf4.tasker.exception.BadRequestException;
 import io.github.michael_altf4.tasker.exception.ErrorResponse;
+import io.github.michael_altf4.tasker.rest.resource.BatchRequestResource;
+import io.github.michael_altf4.tasker.rest.resource.BatchResultResource;
+import io.github.michael_altf4.tasker.rest.resource.BulkCreateTaskResource;
+import io.github.michael_altf4.tasker.rest.resource.CompleteTaskResource;
 import io.github.michael_altf4.tasker.rest.resource.CreateTaskResource;
+import io.github.michael_altf4.tasker.rest.resource.MoveTaskResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskPageResource;
 import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskStatsResource;
 import io.github.michael_altf4.tasker.rest.resource.UpdateTaskResource;
+import io.github.michael_altf4.tasker.service.TaskExportService;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskImportAbortedException;
+import io.github.michael_altf4.tasker.service.TaskImportProgress;
+import io.github.michael_altf4.tasker.service.TaskImportService;
+import io.github.michael_altf4.tasker.service.TaskPage;
+import io.github.michael_altf4.tasker.service.TaskSearchService;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.service.TaskStats;
+import io.github.michael_altf4.tasker.service.TaskUpdateResult;
+import io.github.michael_altf4.tasker.storage.model.Priority;
 import io.github.michael_altf4.tasker.storage.model.Task;
 import io.github.michael_altf4.tasker.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,8 +47,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -31,34 +64,195 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final int EXPORT_BUFFER_SIZE = 8192;
+
     private final TaskService service;
+    private final TaskSearchService searchService;
+    private final TaskExportService exportService;
+    private final TaskImportService importService;
     private final ConversionService conversionService;
+    private final ObjectMapper objectMapper;
 
 
+    @Deprecated
     @GetMapping
-    @Operation(summary = "Get all tasks for current user")
-    public List<TaskResource> getAllTodos() {
-        log.info("Received request to list all tasks");
-        List<Task> tasks = service.getAllTasks();
-        List<TaskResource> resources = new ArrayList<>();
-        for (Task task : tasks) {
-            resources.add(conversionService.convert(task, TaskResource.class));
+    @Operation(summary = "Get tasks for current user in manual order (at most " + TaskService.LEGACY_LIST_LIMIT + ")",
+            description = "Deprecated: use GET /api/tasks/page", deprecated = true)
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of tasks", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "Task list unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<List<TaskResource>> getAllTodos(
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Received request to list all tasks");
+        String etag = EntityTags.of(service.getTasksVersion());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
         }
-        return resources;
+        return ResponseEntity.ok().eTag(etag).cacheControl(EntityTags.REVALIDATE).body(service.getAllTasks());
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of tasks for current user, newest first or in manual order")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskPageResource.class))),
+            @ApiResponse(responseCode = "304", description = "Task list unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, cursor or limit", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TaskPageResource> getTodoPage(
+            @Parameter(description = "Only completed or only open tasks") @RequestParam(required = false) Boolean completed,
+            @Parameter(description = "Only tasks with this priority") @RequestParam(required = false) Priority priority,
+            @Parameter(description = "Created at or after (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Sort order; a cursor is only valid for the sort it was issued for") @RequestParam(defaultValue = "NEWEST") TaskSort sort,
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = EntityTags.of(service.getTasksVersion());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
+        }
+        TaskFilter filter = new TaskFilter(completed, priority, createdFrom, createdTo);
+        TaskPage page = service.getTasks(filter, sort, cursor, limit);
+        TaskPageResource resource = new TaskPageResource();
+        resource.setItems(page.tasks());
+        resource.setNextCursor(page.nextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(EntityTags.REVALIDATE).body(resource);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search the current user's tasks by title, description and comments, best match first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of matching tasks", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskPageResource.class))),
+            @ApiResponse(responseCode = "304", description = "Tasks unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Blank or too long query, invalid cursor or limit", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TaskPageResource> searchTodos(
+            @Parameter(description = "Words to find; every word must match", example = "milk") @RequestParam String q,
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "20") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = EntityTags.of(service.getTasksVersion());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
+        }
+        TaskPage page = searchService.search(q, cursor, limit);
+        TaskPageResource resource = new TaskPageResource();
+        resource.setItems(page.tasks());
+        resource.setNextCursor(page.nextCursor());
+        return ResponseEntity.ok().eTag(etag).cacheControl(EntityTags.REVALIDATE).body(resource);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all tasks of the current user with their comments",
+            description = "Tasks in id order, comments oldest first, read from two database cursors and written as they are read. "
+                    + "The body is gzip-compressed when Accept-Encoding allows it. An export still running after "
+                    + "tasker.export.timeout is cut off.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "NDJSON: one task per line with its comments; CSV: one row per comment",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "503", description = "Too many exports running", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @Parameter(description = "Output format") @RequestParam(defaultValue = "NDJSON") TaskExportFormat format,
+            @Parameter(description = "gzip to compress the body") @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : null;
+            TaskExportWriter writer = TaskExportWriter.of(format, compressed != null ? compressed : out, objectMapper);
+            exportService.forEachTask(writer);
+            writer.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            out.flush();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("tasks." + format.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Import tasks with their comments from an NDJSON or CSV upload",
+            description = "Accepts what GET /api/tasks/export writes. The upload is parsed as it arrives and written in "
+                    + "batches, each committed on its own. Invalid lines are skipped and reported; the response is a stream "
+                    + "of NDJSON events: PROGRESS after each batch, ERROR per skipped line, DONE with the totals. If a batch fails, "
+                    + "a last ERROR event IMPORT_ABORTED carries the line to resume after instead of DONE. "
+                    + "Send Content-Encoding: gzip for a compressed upload.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import events, one per line", content = @Content(mediaType = "application/x-ndjson")),
+            @ApiResponse(responseCode = "400", description = "Unsupported content encoding or unusable CSV header", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public void importTodos(
+            @Parameter(description = "Upload format") @RequestParam(defaultValue = "NDJSON") TaskExportFormat format,
+            @Parameter(description = "gzip if the upload is compressed") @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        InputStream in = request.getInputStream();
+        if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip")) {
+            in = new GZIPInputStream(in, EXPORT_BUFFER_SIZE);
+        } else if (contentEncoding != null && !contentEncoding.trim().equalsIgnoreCase("identity")) {
+            throw new BadRequestException("UNSUPPORTED_ENCODING", "Content-Encoding must be gzip or identity");
+        }
+        // before the response is committed, so a bad CSV header is still a 400
+        TaskImportReader reader = TaskImportReader.of(format, in, objectMapper);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(TaskExportFormat.NDJSON.mediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        TaskImportEventWriter events = new TaskImportEventWriter(response.getOutputStream(), objectMapper);
+        TaskImportProgress result;
+        try {
+            result = importService.importTasks(reader, events);
+        } catch (TaskImportAbortedException e) {
+            // the response is committed, so the failure can only be reported in the stream
+            events.abort(e.committed());
+            return;
+        }
+        events.finish(result);
+        log.debug("Imported {} tasks with {} comments, skipped {} lines", result.tasks(), result.comments(), result.rejected());
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Count the current user's open and completed tasks")
+    @ApiResponse(responseCode = "200", description = "Task counts", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatsResource.class)))
+    public ResponseEntity<TaskStatsResource> getStats() {
+        TaskStats stats = service.getStats();
+        TaskStatsResource resource = new TaskStatsResource();
+        resource.setOpen(stats.open());
+        resource.setCompleted(stats.completed());
+        resource.setTotal(stats.total());
+        return ResponseEntity.ok(resource);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "task found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskResource.class))),
+            @ApiResponse(responseCode = "304", description = "task unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "task not found or access denied")
     })
     public ResponseEntity<TaskResource> getTodoById(
-            @Parameter(description = "task ID", example = "1") @PathVariable Long id) {
-        log.info("Received request to get task with id='{}'", id);
-        return service.getTodoById(id)
-                .map(task -> conversionService.convert(task, TaskResource.class))
-                .map(ResponseEntity::ok)
+            @Parameter(description = "task ID", example = "1") @PathVariable Long id,
+            @Parameter(description = "ETag of a previous response") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Received request to get task with id='{}'", id);
+        Optional<Long> version = service.getTaskVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = EntityTags.ofTask(id, version.get());
+        if (EntityTags.isNotModified(ifNoneMatch, etag)) {
+            return EntityTags.notModified(etag);
+        }
+        return service.getTodoResourceById(id)
+                .map(resource -> ResponseEntity.ok()
+                        .eTag(EntityTags.ofTask(id, resource.getVersion()))
+                        .cacheControl(EntityTags.REVALIDATE)
+                        .body(resource))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -69,36 +263,109 @@ public class TaskController {
             @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<TaskResource> createTodo(@Valid @RequestBody CreateTaskResource request) {
-        log.info("Received request to create todo with title='{}'", request.getTitle());
+        log.debug("Received request to create todo with title='{}'", request.getTitle());
         Task task = conversionService.convert(request, Task.class);
         Task saved = service.createTask(task);
         TaskResource resource = conversionService.convert(saved, TaskResource.class);
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create up to " + TaskService.MAX_BULK_SIZE + " todos in one transaction")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Todos created, in request order", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<List<TaskResource>> createTodos(@Valid @RequestBody BulkCreateTaskResource request) {
+        log.debug("Received request to create {} todos", request.getTasks().size());
+        List<Task> tasks = new ArrayList<>(request.getTasks().size());
+        for (CreateTaskResource resource : request.getTasks()) {
+            tasks.add(conversionService.convert(resource, Task.class));
+        }
+        List<Task> saved = service.createTasks(tasks);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResources(saved));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create, update, complete, reopen or delete up to " + TaskService.MAX_BULK_SIZE + " todos in one transaction",
+            description = "Each task ID may appear at most once per batch. Returns one result per operation, in request order.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-operation results", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public List<BatchResultResource> executeBatch(@Valid @RequestBody BatchRequestResource request) {
+        log.debug("Received batch of {} operations", request.getOperations().size());
+        return service.executeBatch(request.getOperations());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update todo by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Todo updated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TaskResource.class))),
             @ApiResponse(responseCode = "404", description = "Todo not found or access denied"),
-            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Todo changed concurrently by another request", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Todo no longer matches the ETag in If-Match", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<TaskResource> updateTodo(
             @PathVariable Long id,
-            @Valid @RequestBody UpdateTaskResource request) {
-        Task updated = service.updateTask(id, request);
+            @Valid @RequestBody UpdateTaskResource request,
+            @Parameter(description = "ETag the client last saw; the update is rejected if the todo changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task updated = service.updateTask(id, request, EntityTags.ifMatchVersion(ifMatch, id));
         if (updated != null) {
             TaskResource resource = conversionService.convert(updated, TaskResource.class);
-            log.info("Updated task ID={}", id);
-            return ResponseEntity.ok(resource);
+            return ResponseEntity.ok().eTag(EntityTags.ofTask(id, updated.getVersion())).body(resource);
         } else {
             log.warn("Attempt to update non-existent or foreign todo with ID={}", id);
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PutMapping("/{id}/completed")
+    @Operation(summary = "Mark todo completed or open with a single conditional update")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Todo has the requested state; the ETag is returned when If-Match was sent"),
+            @ApiResponse(responseCode = "404", description = "Todo not found or access denied"),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Todo no longer matches the ETag in If-Match", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> completeTodo(
+            @Parameter(description = "Todo ID", example = "1") @PathVariable Long id,
+            @Valid @RequestBody CompleteTaskResource request,
+            @Parameter(description = "ETag the client last saw; the update is rejected if the todo changed since") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = EntityTags.ifMatchVersion(ifMatch, id);
+        TaskUpdateResult result = service.setCompleted(id, request.getCompleted(), expectedVersion);
+        if (result == TaskUpdateResult.NOT_FOUND) {
+            log.warn("Attempt to complete non-existent or foreign todo ID={}", id);
+            return ResponseEntity.notFound().build();
+        }
+        if (expectedVersion == null) {
+            return ResponseEntity.noContent().build();
+        }
+        long version = result == TaskUpdateResult.UPDATED ? expectedVersion + 1 : expectedVersion;
+        return ResponseEntity.noContent().eTag(EntityTags.ofTask(id, version)).build();
+    }
+
+    @PutMapping("/{id}/position")
+    @Operation(summary = "Move todo right after another todo, or to the top")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Todo moved"),
+            @ApiResponse(responseCode = "404", description = "Todo or anchor todo not found or access denied"),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> moveTodo(
+            @Parameter(description = "Todo ID", example = "1") @PathVariable Long id,
+            @RequestBody MoveTaskResource request) {
+        if (service.moveTask(id, request.getAfterId())) {
+            return ResponseEntity.noContent().build();
+        }
+        log.warn("Attempt to move non-existent or foreign todo ID={} after ID={}", id, request.getAfterId());
+        return ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete todo by ID")
+    @Operation(summary = "Delete todo by ID",
+            description = "The todo and its comments can be restored until the undo window (tasker.purge.undo-window) has passed")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Todo deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Todo not found or access denied")
@@ -107,11 +374,46 @@ public class TaskController {
             @Parameter(description = "Todo ID", example = "1") @PathVariable Long id) {
         try {
             service.deleteTask(id);
-            log.info("Todo with ID={} deleted successfully", id);
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             log.warn("Error deleting todo with ID={}: {}", id, e.getMessage());
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restore a deleted todo with its comments")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Todo restored"),
+            @ApiResponse(responseCode = "404", description = "Todo not deleted, past the undo window, not found or access denied")
+    })
+    public ResponseEntity<Void> restoreTodo(
+            @Parameter(description = "Todo ID", example = "1") @PathVariable Long id) {
+        if (service.restoreTask(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        log.warn("Attempt to restore non-deleted, expired or foreign todo ID={}", id);
+        return ResponseEntity.notFound().build();
+    }
+
+    private List<TaskResource> toResources(List<Task> tasks) {
+        List<TaskResource> resources = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            resources.add(conversionService.convert(task, TaskResource.class));
+        }
+        return resources;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
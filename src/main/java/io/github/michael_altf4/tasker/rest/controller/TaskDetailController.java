@@ -4,7 +4,6 @@ import io.github.michael_altf4.tasker.rest.resource.UpdateTaskResource;
 import io.github.michael_altf4.tasker.service.TaskService;
 import io.github.michael_altf4.tasker.storage.model.Priority;
 import io.github.michael_altf4.tasker.storage.model.Task;
-import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -20,13 +19,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class TaskDetailController {
 
     private final TaskService taskService;
-    private final TaskRepository repository;
 
     @GetMapping("/task/{id}")
     @Operation(summary = "Show todo details page")
     public String getTodoDetails(@PathVariable Long id, Model model) {
         try {
-            Task todo = repository.findById(id)
+            Task todo = taskService.getTodoById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Todo not found: " + id));
             model.addAttribute("todo", todo);
             return "task-details";
@@ -0,0 +1,33 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import org.springframework.http.MediaType;
+
+public enum TaskExportFormat {
+
+    /**
+     * One JSON object per line: the task with its comments nested.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * One row per comment with the task columns repeated; a task without comments gets one row with
+     * empty comment columns.
+     */
+    CSV("text/csv", "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TaskExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskExportResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskExport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported tasks to the response as they come off the cursors, comments included, so neither
+ * the export nor a single thread is ever held in memory. Nothing is flushed per task; {@link #finish()}
+ * writes out what is left in the buffer.
+ */
+abstract class TaskExportWriter implements Consumer<TaskExport> {
+
+    static TaskExportWriter of(TaskExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(out, objectMapper);
+            case CSV -> new Csv(out);
+        };
+    }
+
+    @Override
+    public void accept(TaskExport export) {
+        try {
+            write(export);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    abstract void write(TaskExport export) throws IOException;
+
+    abstract void finish() throws IOException;
+
+    private static final class Ndjson extends TaskExportWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            generator = objectMapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are separated by hand, one per task
+            generator.setRootValueSeparator(null);
+            writer = objectMapper.writerFor(TaskExportResource.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        void write(TaskExport export) throws IOException {
+            writer.writeValue(generator, new TaskExportResource(export.task(), export.comments()));
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class Csv extends TaskExportWriter {
+
+        private static final String HEADER = "task_id,title,description,completed,priority,created_at,position,version,"
+                + "comment_count,comment_id,comment_text,comment_created_at\n";
+
+        private final Writer out;
+
+        Csv(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.out.write(HEADER);
+        }
+
+        @Override
+        void write(TaskExport export) throws IOException {
+            Iterator<CommentResource> comments = export.comments();
+            if (!comments.hasNext()) {
+                row(export.task(), null);
+            }
+            while (comments.hasNext()) {
+                row(export.task(), comments.next());
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            out.flush();
+        }
+
+        private void row(TaskResource task, CommentResource comment) throws IOException {
+            Object[] values = {task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(),
+                    task.getPriority(), task.getCreatedAt(), task.getPosition(), task.getVersion(), task.getCommentCount(),
+                    comment != null ? comment.getId() : null,
+                    comment != null ? comment.getText() : null,
+                    comment != null ? comment.getCreatedAt() : null};
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                value(values[i]);
+            }
+            out.write('\n');
+        }
+
+        /**
+         * RFC 4180: quoted, with quotes doubled, when the value holds a separator, a quote or a line break.
+         */
+        private void value(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(text.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(text);
+            }
+        }
+    }
+}
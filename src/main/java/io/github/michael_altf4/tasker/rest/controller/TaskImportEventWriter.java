@@ -0,0 +1,73 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.michael_altf4.tasker.rest.resource.TaskImportEventResource;
+import io.github.michael_altf4.tasker.service.TaskImportError;
+import io.github.michael_altf4.tasker.service.TaskImportListener;
+import io.github.michael_altf4.tasker.service.TaskImportProgress;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reports a running import to the client as NDJSON events, flushing each one so progress shows up
+ * while the upload is still being read.
+ */
+@Slf4j
+class TaskImportEventWriter implements TaskImportListener {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    TaskImportEventWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        generator = objectMapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // lines are separated by hand, one per event
+        generator.setRootValueSeparator(null);
+        writer = objectMapper.writerFor(TaskImportEventResource.class);
+    }
+
+    @Override
+    public void rejected(TaskImportError error) {
+        write(TaskImportEventResource.error(error));
+    }
+
+    @Override
+    public void committed(TaskImportProgress progress) {
+        write(TaskImportEventResource.of(TaskImportEventResource.Type.PROGRESS, progress));
+    }
+
+    /**
+     * Last event of an import that stopped part way, carrying what was committed before. The client
+     * may be gone already, so a failed write is only logged.
+     */
+    void abort(TaskImportProgress committed) {
+        TaskImportEventResource event = TaskImportEventResource.of(TaskImportEventResource.Type.ERROR, committed);
+        event.setErrorCode("IMPORT_ABORTED");
+        event.setMessage("Import stopped; lines up to " + committed.line() + " are imported or skipped, resume after it");
+        try {
+            write(event);
+            generator.close();
+        } catch (UncheckedIOException | IOException e) {
+            log.debug("Could not report the aborted import: {}", e.getMessage());
+        }
+    }
+
+    void finish(TaskImportProgress result) throws IOException {
+        write(TaskImportEventResource.of(TaskImportEventResource.Type.DONE, result));
+        generator.close();
+    }
+
+    private void write(TaskImportEventResource event) {
+        try {
+            writer.writeValue(generator, event);
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
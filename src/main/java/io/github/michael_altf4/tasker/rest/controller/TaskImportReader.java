@@ -0,0 +1,282 @@
+package io.github.michael_altf4.tasker.rest.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskImportResource;
+import io.github.michael_altf4.tasker.service.TaskImport;
+import io.github.michael_altf4.tasker.service.TaskImportSource;
+import io.github.michael_altf4.tasker.storage.model.Priority;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses an import upload as it arrives, in the formats the export writes, so an export can be
+ * imported back. Only the task being parsed is held in memory. Line numbers count physical lines,
+ * so they match what an editor shows even when a CSV field spans several lines.
+ */
+public abstract class TaskImportReader implements TaskImportSource {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    public static TaskImportReader of(TaskExportFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return switch (format) {
+            case NDJSON -> new Ndjson(reader, objectMapper);
+            case CSV -> new Csv(reader);
+        };
+    }
+
+    private static final class Ndjson extends TaskImportReader {
+
+        private final BufferedReader in;
+        private final ObjectReader reader;
+        private long line;
+
+        Ndjson(BufferedReader in, ObjectMapper objectMapper) {
+            this.in = in;
+            this.reader = objectMapper.readerFor(TaskImportResource.class);
+        }
+
+        @Override
+        public TaskImport next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.isBlank());
+
+            TaskImportResource resource;
+            try {
+                resource = reader.readValue(text);
+            } catch (JsonProcessingException e) {
+                throw new InvalidLineException(line, "INVALID_JSON", e.getOriginalMessage());
+            }
+            List<TaskImport.Comment> comments = new ArrayList<>(resource.getComments() != null ? resource.getComments().size() : 0);
+            if (resource.getComments() != null) {
+                for (CommentResource comment : resource.getComments()) {
+                    comments.add(new TaskImport.Comment(comment.getText(), comment.getCreatedAt()));
+                }
+            }
+            return new TaskImport(line, resource.getTitle(), resource.getDescription(),
+                    Boolean.TRUE.equals(resource.getCompleted()), resource.getPriority(), resource.getCreatedAt(), comments);
+        }
+    }
+
+    /**
+     * RFC 4180 with a header row naming the columns; only {@code title} is required and unknown
+     * columns are ignored. Consecutive rows with the same {@code task_id} are one task, one comment
+     * per row, as the export writes them. An empty field reads as absent.
+     */
+    private static final class Csv extends TaskImportReader {
+
+        private record Row(long line, List<String> fields) {
+        }
+
+        private final BufferedReader in;
+        private long line = 1;
+        private final int width;
+        private final int taskId;
+        private final int title;
+        private final int description;
+        private final int completed;
+        private final int priority;
+        private final int createdAt;
+        private final int commentText;
+        private final int commentCreatedAt;
+        private Row pending;
+        private InvalidLineException pendingError;
+
+        Csv(BufferedReader in) throws IOException {
+            this.in = in;
+            in.mark(1);
+            // a byte order mark, as spreadsheet programs write
+            if (in.read() != '\uFEFF') {
+                in.reset();
+            }
+            Row header;
+            try {
+                header = readRow();
+            } catch (InvalidLineException e) {
+                throw new BadRequestException("INVALID_CSV", e.getMessage());
+            }
+            if (header == null) {
+                throw new BadRequestException("INVALID_CSV", "CSV header row is missing");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.fields().size(); i++) {
+                columns.putIfAbsent(header.fields().get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new BadRequestException("INVALID_CSV", "CSV header must include a title column");
+            }
+            width = header.fields().size();
+            taskId = columns.getOrDefault("task_id", -1);
+            title = columns.get("title");
+            description = columns.getOrDefault("description", -1);
+            completed = columns.getOrDefault("completed", -1);
+            priority = columns.getOrDefault("priority", -1);
+            createdAt = columns.getOrDefault("created_at", -1);
+            commentText = columns.getOrDefault("comment_text", -1);
+            commentCreatedAt = columns.getOrDefault("comment_created_at", -1);
+        }
+
+        @Override
+        public TaskImport next() throws IOException {
+            if (pendingError != null) {
+                InvalidLineException error = pendingError;
+                pendingError = null;
+                throw error;
+            }
+            Row first = pending != null ? pending : readRow();
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+            List<Row> rows = new ArrayList<>();
+            rows.add(first);
+            String key = field(first, taskId);
+            if (key != null) {
+                // one row of look-ahead to find where the task ends
+                try {
+                    Row row;
+                    while ((row = readRow()) != null && key.equals(field(row, taskId))) {
+                        rows.add(row);
+                    }
+                    pending = row;
+                } catch (InvalidLineException e) {
+                    pendingError = e;
+                }
+            }
+            for (Row row : rows) {
+                if (row.fields().size() != width) {
+                    throw new InvalidLineException(row.line(), "INVALID_CSV",
+                            "Expected " + width + " fields, found " + row.fields().size());
+                }
+            }
+
+            List<TaskImport.Comment> comments = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                String text = field(row, commentText);
+                if (text != null) {
+                    comments.add(new TaskImport.Comment(text, dateTime(row, commentCreatedAt)));
+                }
+            }
+            return new TaskImport(first.line(), field(first, title), field(first, description), bool(first, completed),
+                    priority(first), dateTime(first, createdAt), comments);
+        }
+
+        /**
+         * Returns null at the end of the input. Blank lines are skipped.
+         */
+        private Row readRow() throws IOException {
+            int c = in.read();
+            while (c == '\n' || c == '\r') {
+                if (c == '\n') {
+                    line++;
+                }
+                c = in.read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            long start = line;
+            List<String> fields = new ArrayList<>(Math.max(width, 1));
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new InvalidLineException(start, "INVALID_CSV", "Quoted field is not closed");
+                    }
+                    if (c == '"') {
+                        c = in.read();
+                        if (c == '"') {
+                            field.append('"');
+                            c = in.read();
+                        } else {
+                            quoted = false;
+                        }
+                        continue;
+                    }
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    if (c == '\n') {
+                        line++;
+                    }
+                    return new Row(start, fields);
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+
+        private static String field(Row row, int index) {
+            if (index < 0 || index >= row.fields().size() || row.fields().get(index).isEmpty()) {
+                return null;
+            }
+            return row.fields().get(index);
+        }
+
+        private static boolean bool(Row row, int index) {
+            String value = field(row, index);
+            if (value == null || value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            }
+            throw new InvalidLineException(row.line(), "INVALID_COMPLETED", "Completed must be true or false, not '" + value + "'");
+        }
+
+        private Priority priority(Row row) {
+            String value = field(row, priority);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Priority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidLineException(row.line(), "INVALID_PRIORITY", "Priority must be LOW, MEDIUM or HIGH, not '" + value + "'");
+            }
+        }
+
+        private static LocalDateTime dateTime(Row row, int index) {
+            String value = field(row, index);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDateTime.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new InvalidLineException(row.line(), "INVALID_DATE", "Expected an ISO date-time, not '" + value + "'");
+            }
+        }
+    }
+}
@@ -17,6 +17,9 @@ public class TaskToTaskResourceConverter implements Converter<Task, TaskResource
         resource.setCompleted(task.isCompleted());
         resource.setPriority(task.getPriority() != null ? task.getPriority().name() : null);
         resource.setCreatedAt(task.getCreatedAt());
+        resource.setPosition(task.getPosition());
+        resource.setVersion(task.getVersion());
+        resource.setCommentCount(task.getCommentCount());
         return resource;
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.github.michael_altf4.tasker.storage.model.Priority;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BatchOperationResource {
+
+    public enum Type {
+        CREATE, UPDATE, COMPLETE, REOPEN, DELETE
+    }
+
+    @NotNull(message = "Operation must not be null")
+    private Type op;
+
+    @Schema(description = "Target task ID, required for every operation except CREATE")
+    private Long id;
+
+    private String title;
+    private String description;
+    private Priority priority;
+    private Boolean completed;
+
+}
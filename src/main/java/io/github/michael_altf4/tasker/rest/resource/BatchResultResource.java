@@ -0,0 +1,34 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BatchResultResource {
+
+    public enum Status {
+        OK, NOT_FOUND, INVALID
+    }
+
+    private int index;
+    private BatchOperationResource.Type op;
+    private Long id;
+    private Status status;
+    private String errorCode;
+    private String message;
+
+    public BatchResultResource(int index, BatchOperationResource.Type op, Long id, Status status) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+    }
+
+    public static BatchResultResource invalid(int index, BatchOperationResource operation, String errorCode, String message) {
+        BatchResultResource result = new BatchResultResource(index, operation.getOp(), operation.getId(), Status.INVALID);
+        result.setErrorCode(errorCode);
+        result.setMessage(message);
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.github.michael_altf4.tasker.service.TaskService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCreateTaskResource {
+
+    @NotEmpty(message = "Tasks must not be empty")
+    @Size(max = TaskService.MAX_BULK_SIZE, message = "At most " + TaskService.MAX_BULK_SIZE + " tasks per request")
+    private List<@Valid CreateTaskResource> tasks;
+
+}
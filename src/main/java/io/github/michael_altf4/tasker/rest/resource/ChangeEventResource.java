@@ -0,0 +1,19 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventResource {
+
+    @Schema(description = "What changed: TASK or COMMENT")
+    private String kind;
+
+    @Schema(description = "Change number; everything up to it is visible to GET /api/sync")
+    private long changeSeq;
+
+}
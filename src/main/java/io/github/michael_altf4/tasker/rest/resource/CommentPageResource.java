@@ -0,0 +1,16 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CommentPageResource {
+
+    private List<CommentResource> items;
+
+    @Schema(description = "Cursor for the next page, absent on the last page")
+    private String nextCursor;
+
+}
@@ -1,10 +1,14 @@
 package io.github.michael_altf4.tasker.rest.resource;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentResource {
 
     private Long id;
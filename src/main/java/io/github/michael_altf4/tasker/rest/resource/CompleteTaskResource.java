@@ -0,0 +1,14 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CompleteTaskResource {
+
+    @NotNull(message = "Completed flag is required")
+    @Schema(description = "New completion state", example = "true")
+    private Boolean completed;
+
+}
@@ -0,0 +1,12 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class MoveTaskResource {
+
+    @Schema(description = "ID of the task to place this one after; null moves it to the top")
+    private Long afterId;
+
+}
@@ -0,0 +1,19 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncCommentResource {
+
+    private Long id;
+    private Long taskId;
+    private String text;
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,29 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SyncResource {
+
+    @Schema(description = "Tasks created or changed since the token, in change order")
+    private List<TaskResource> tasks;
+
+    @Schema(description = "Comments created or changed since the token, in change order")
+    private List<SyncCommentResource> comments;
+
+    @Schema(description = "Tasks deleted since the token; their comments are gone with them")
+    private List<Long> deletedTaskIds;
+
+    @Schema(description = "Comments deleted since the token")
+    private List<Long> deletedCommentIds;
+
+    @Schema(description = "Pass as since on the next sync")
+    private String token;
+
+    @Schema(description = "True when this is a full snapshot that replaces local state: no token was sent, or it had expired")
+    private boolean reset;
+
+}
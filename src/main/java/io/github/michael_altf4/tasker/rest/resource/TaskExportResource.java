@@ -0,0 +1,22 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Iterator;
+
+@Data
+@AllArgsConstructor
+public class TaskExportResource {
+
+    @JsonUnwrapped
+    private TaskResource task;
+
+    // serialized while it is iterated, so a long thread is never buffered
+    @ArraySchema(schema = @Schema(implementation = CommentResource.class), arraySchema = @Schema(description = "Comments, oldest first"))
+    private Iterator<CommentResource> comments;
+
+}
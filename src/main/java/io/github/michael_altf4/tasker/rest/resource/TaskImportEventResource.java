@@ -0,0 +1,57 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.github.michael_altf4.tasker.service.TaskImportError;
+import io.github.michael_altf4.tasker.service.TaskImportProgress;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskImportEventResource {
+
+    public enum Type {
+        PROGRESS, ERROR, DONE
+    }
+
+    @Schema(description = "PROGRESS after each committed batch, ERROR for each skipped line, DONE once at the end; "
+            + "an ERROR with errorCode IMPORT_ABORTED ends an import that stopped part way")
+    private Type type;
+
+    @Schema(description = "Line of the upload the event refers to; for PROGRESS and DONE, the last line handled; "
+            + "for IMPORT_ABORTED, the last line committed or skipped")
+    private long line;
+
+    @Schema(description = "Tasks imported so far")
+    private Long tasks;
+
+    @Schema(description = "Comments imported so far")
+    private Long comments;
+
+    @Schema(description = "Lines skipped so far")
+    private Long rejected;
+
+    private String errorCode;
+    private String message;
+
+    public static TaskImportEventResource of(Type type, TaskImportProgress progress) {
+        TaskImportEventResource event = new TaskImportEventResource();
+        event.setType(type);
+        event.setLine(progress.line());
+        event.setTasks(progress.tasks());
+        event.setComments(progress.comments());
+        event.setRejected(progress.rejected());
+        return event;
+    }
+
+    public static TaskImportEventResource error(TaskImportError error) {
+        TaskImportEventResource event = new TaskImportEventResource();
+        event.setType(Type.ERROR);
+        event.setLine(error.line());
+        event.setErrorCode(error.code());
+        event.setMessage(error.message());
+        return event;
+    }
+}
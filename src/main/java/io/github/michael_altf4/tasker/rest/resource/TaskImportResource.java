@@ -0,0 +1,29 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.github.michael_altf4.tasker.storage.model.Priority;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One NDJSON import line. Lines written by the export are accepted as they are; ids, positions,
+ * versions and counts in them are ignored.
+ */
+@Data
+public class TaskImportResource {
+
+    private String title;
+    private String description;
+    private Boolean completed;
+    private Priority priority;
+
+    @Schema(description = "Creation time to keep; defaults to the time of the import")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Comments in the order to create them")
+    private List<CommentResource> comments = new ArrayList<>();
+
+}
@@ -1,12 +1,15 @@
 package io.github.michael_altf4.tasker.rest.resource;
 
 
+import io.github.michael_altf4.tasker.storage.model.Priority;
 import jakarta.validation.constraints.NotBlank;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class TaskResource {
 
     private Long id;
@@ -15,5 +18,26 @@ public class TaskResource {
     private boolean completed;
     private String priority;
     private LocalDateTime createdAt;
+    private long position;
+    @Schema(description = "Changes with every update; the ETag of the task is derived from it")
+    private long version;
+    @Schema(description = "Number of comments on the task")
+    private int commentCount;
+
+    /**
+     * Constructor projection target for read-only task queries.
+     */
+    public TaskResource(Long id, String title, String description, boolean completed,
+                        Priority priority, LocalDateTime createdAt, long position, long version, int commentCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.priority = priority != null ? priority.name() : null;
+        this.createdAt = createdAt;
+        this.position = position;
+        this.version = version;
+        this.commentCount = commentCount;
+    }
 
 }
\ No newline at end of file
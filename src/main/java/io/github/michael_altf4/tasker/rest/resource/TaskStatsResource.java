@@ -0,0 +1,18 @@
+package io.github.michael_altf4.tasker.rest.resource;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+public class TaskStatsResource {
+
+    @Schema(description = "Tasks not completed yet", example = "3")
+    private long open;
+
+    @Schema(description = "Completed tasks", example = "5")
+    private long completed;
+
+    @Schema(description = "All tasks of the user", example = "8")
+    private long total;
+
+}
@@ -0,0 +1,43 @@
+package io.github.michael_altf4.tasker.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that skips the password encoder for credentials which already
+ * passed a full check within the {@link CredentialCache} TTL. Failed attempts always go through the
+ * encoder, so the cache does not make guessing cheaper.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final CredentialCache credentialCache;
+
+    public CachingDaoAuthenticationProvider(UserDetailsService userDetailsService,
+                                            PasswordEncoder passwordEncoder,
+                                            CredentialCache credentialCache) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null || userDetails.getPassword() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+        String presentedPassword = credentials.toString();
+        if (credentialCache.matches(userDetails.getUsername(), userDetails.getPassword(), presentedPassword)) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        credentialCache.put(userDetails.getUsername(), userDetails.getPassword(), presentedPassword);
+    }
+}
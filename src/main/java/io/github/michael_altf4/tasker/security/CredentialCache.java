@@ -0,0 +1,66 @@
+package io.github.michael_altf4.tasker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Remembers credentials that recently passed a full password check.
+ * <p>
+ * Only an HMAC of {@code username + stored password hash + presented password} is kept, keyed with a
+ * random per-process secret, so the cache never holds plain passwords and an entry stops matching as
+ * soon as the stored hash changes.
+ */
+public class CredentialCache {
+
+    public static final String CACHE_NAME = "credentials";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Cache<String, byte[]> cache;
+
+    public CredentialCache(MeterRegistry meterRegistry, long maximumSize, Duration ttl) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean matches(String username, String storedHash, String presentedPassword) {
+        byte[] cached = cache.getIfPresent(username);
+        return cached != null && MessageDigest.isEqual(cached, mac(username, storedHash, presentedPassword));
+    }
+
+    public void put(String username, String storedHash, String presentedPassword) {
+        cache.put(username, mac(username, storedHash, presentedPassword));
+    }
+
+    private byte[] mac(String username, String storedHash, String presentedPassword) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(presentedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
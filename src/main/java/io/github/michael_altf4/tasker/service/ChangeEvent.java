@@ -0,0 +1,8 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * Published by {@link ChangeTracker} for every claimed change number and delivered to the
+ * {@link ChangeFeed} only after the writing transaction commits.
+ */
+public record ChangeEvent(Long userId, ChangeTracker.Kind kind, long changeSeq) {
+}
@@ -0,0 +1,196 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.config.ExecutorConfig;
+import io.github.michael_altf4.tasker.rest.resource.ChangeEventResource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes {@link ChangeEvent}s to the current user's open {@code text/event-stream} connections once
+ * the writing transaction has committed. Events carry only the kind and change number; clients
+ * fetch the rows themselves through the ETag-validated lists or {@code GET /api/sync}.
+ * <p>
+ * Every connection has its own bounded queue drained on the feed's own executor
+ * ({@link ExecutorConfig#CHANGE_FEED_EXECUTOR}), so a write never blocks on a socket and stalled
+ * clients do not hold threads other work needs. A connection whose queue fills up is closed rather than buffered
+ * further; {@code EventSource} reconnects on its own and the client resyncs.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    // Builders are mutable, so each message is built once and the parts are shared between connections
+    private static final Set<DataWithMediaType> HEARTBEAT = Collections.unmodifiableSet(SseEmitter.event().comment("heartbeat").build());
+    private static final Set<DataWithMediaType> CONNECTED = Collections.unmodifiableSet(SseEmitter.event().comment("connected").build());
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final UserService userService;
+    private final Executor executor;
+    private final Counter dropped;
+    private final Duration timeout;
+    private final int bufferSize;
+
+    public ChangeFeed(UserService userService, MeterRegistry registry,
+                      @Qualifier(ExecutorConfig.CHANGE_FEED_EXECUTOR) Executor executor,
+                      @Value("${tasker.events.timeout:30m}") Duration timeout,
+                      @Value("${tasker.events.buffer-size:32}") int bufferSize) {
+        this.userService = userService;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.dropped = Counter.builder("tasker.events.dropped")
+                .description("Event stream connections closed because the client fell behind")
+                .register(registry);
+        Gauge.builder("tasker.events.subscribers", this, ChangeFeed::subscriberCount)
+                .description("Open event stream connections")
+                .register(registry);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(userService.getCurrentUser().getId(), emitter);
+        return emitter;
+    }
+
+    void register(Long userId, SseEmitter emitter) {
+        // Sent before the handler returns, so the request thread commits the response while it still
+        // owns it; a first write from the executor would race with the filters writing headers
+        try {
+            emitter.send(CONNECTED);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> remove(subscriber));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null) {
+            return;
+        }
+        String kind = event.kind().name();
+        Set<DataWithMediaType> message = Collections.unmodifiableSet(SseEmitter.event()
+                .id(Long.toString(event.changeSeq()))
+                .name(kind.toLowerCase(Locale.ROOT))
+                .data(new ChangeEventResource(kind, event.changeSeq()), MediaType.APPLICATION_JSON)
+                .build());
+        for (Subscriber subscriber : userSubscribers) {
+            enqueue(subscriber, message);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${tasker.events.heartbeat-interval:15s}",
+            initialDelayString = "${tasker.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                enqueue(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Ends every stream before the web server starts its graceful shutdown, which would otherwise
+     * wait for the long-lived requests.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(this::close));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> message) {
+        if (!subscriber.queue.offer(message)) {
+            log.debug("Closing event stream of user {}: {} messages unsent", subscriber.userId, bufferSize);
+            dropped.increment();
+            close(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> message;
+            while ((message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Event stream of user {} is gone: {}", subscriber.userId, e.getMessage());
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A message offered after the last poll but before the flag was cleared would be stranded
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.queue.clear();
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException e) {
+            log.debug("Event stream of user {} already closed", subscriber.userId);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
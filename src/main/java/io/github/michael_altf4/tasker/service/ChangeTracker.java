@@ -0,0 +1,101 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user change sequence behind delta sync and the task list ETag. Every write claims the next
+ * number inside its transaction and stamps it on the rows it touches; deletes leave a tombstone
+ * carrying it. Claiming updates the user row, whose lock is held until commit, so a reader that
+ * sees number N will never later find an uncommitted change numbered N or lower. Each claim also
+ * publishes a {@link ChangeEvent}, which listeners receive after commit.
+ */
+@Slf4j
+@Component
+public class ChangeTracker {
+
+    public enum Kind { TASK, COMMENT }
+
+    public record Tombstone(Kind kind, long id) {
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration tombstoneRetention;
+
+    public ChangeTracker(UserRepository userRepository, JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                         @Value("${tasker.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Increments over JDBC: the column is not mapped, and a native update through Hibernate would
+     * clear every second-level cache region.
+     */
+    public long next(Long userId, Kind kind) {
+        jdbcTemplate.update("UPDATE app_user SET change_seq = change_seq + 1 WHERE id = ?", userId);
+        long changeSeq = userRepository.findChangeSeq(userId);
+        eventPublisher.publishEvent(new ChangeEvent(userId, kind, changeSeq));
+        return changeSeq;
+    }
+
+    public long current(Long userId) {
+        return userRepository.findChangeSeq(userId);
+    }
+
+    public void recordDeletes(Long userId, Kind kind, Collection<Long> ids, long changeSeq) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[]{userId, kind.name(), id, changeSeq, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tombstone (user_id, kind, entity_id, change_seq, deleted_at) VALUES (?, ?, ?, ?, ?)", args);
+    }
+
+    /**
+     * Drops the tombstone of a restored entity, so clients syncing later do not delete it again.
+     */
+    public void forgetDelete(Long userId, Kind kind, Long id) {
+        jdbcTemplate.update("DELETE FROM tombstone WHERE user_id = ? AND kind = ? AND entity_id = ?", userId, kind.name(), id);
+    }
+
+    public List<Tombstone> findDeletesSince(Long userId, long since) {
+        return jdbcTemplate.query(
+                "SELECT kind, entity_id FROM tombstone WHERE user_id = ? AND change_seq > ? ORDER BY change_seq, id",
+                (rs, row) -> new Tombstone(Kind.valueOf(rs.getString(1)), rs.getLong(2)),
+                userId, since);
+    }
+
+    /**
+     * Tokens issued before this instant may have lost tombstones to pruning.
+     */
+    public Instant oldestCompleteToken() {
+        return Instant.now().minus(tombstoneRetention);
+    }
+
+    @Scheduled(fixedDelayString = "${tasker.sync.prune-interval:1h}")
+    public void pruneTombstones() {
+        Timestamp cutoff = Timestamp.from(oldestCompleteToken());
+        int pruned = jdbcTemplate.update("DELETE FROM tombstone WHERE deleted_at < ?", cutoff);
+        if (pruned > 0) {
+            log.debug("Pruned {} tombstones older than {}", pruned, tombstoneRetention);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+
+import java.util.List;
+
+public record CommentPage(List<CommentResource> comments, String nextCursor) {
+}
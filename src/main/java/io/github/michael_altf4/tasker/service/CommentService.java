@@ -1,53 +1,147 @@
 
 package io.github.michael_altf4.tasker.service;
 
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
 import io.github.michael_altf4.tasker.storage.model.Comment;
 import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
 import io.github.michael_altf4.tasker.storage.repository.CommentRepository;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class CommentService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int LEGACY_LIST_LIMIT = 1000;
+
     private final CommentRepository repository;
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final ChangeTracker changeTracker;
+    private final TaskCacheEvictor cacheEvictor;
 
-    public List<Comment> getCommentsByTodoId(Long todoId) {
+    /**
+     * @deprecated returns at most {@link #LEGACY_LIST_LIMIT} oldest comments;
+     * use {@link #getComments(Long, String, int)} instead.
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public Optional<List<CommentResource>> getCommentsByTodoId(Long todoId) {
         log.debug("Fetching comments for task ID={}", todoId);
-        return repository.findByTask_Id(todoId);
+        User user = userService.getCurrentUser();
+        List<CommentResource> comments = repository.findOwned(user, todoId, Limit.of(LEGACY_LIST_LIMIT));
+        if (comments.isEmpty() && !taskRepository.existsByIdAndUser(todoId, user)) {
+            return Optional.empty();
+        }
+        return Optional.of(comments);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CommentPage> getComments(Long todoId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("INVALID_LIMIT", "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CommentCursor after = cursor != null ? CommentCursor.decode(cursor) : null;
+        User user = userService.getCurrentUser();
+        log.debug("Fetching page of {} comments for task ID={}", limit, todoId);
+
+        List<CommentResource> comments = after == null
+                ? repository.findOwned(user, todoId, Limit.of(limit + 1))
+                : repository.findOwnedAfter(user, todoId, after.createdAt(), after.id(), Limit.of(limit + 1));
+        if (comments.isEmpty() && !taskRepository.existsByIdAndUser(todoId, user)) {
+            return Optional.empty();
+        }
+        if (comments.size() <= limit) {
+            return Optional.of(new CommentPage(comments, null));
+        }
+        List<CommentResource> page = comments.subList(0, limit);
+        return Optional.of(new CommentPage(page, CommentCursor.of(page.get(limit - 1)).encode()));
+    }
+
+    /**
+     * Identifies the current state of an owned task's comment thread; empty if the task is
+     * missing or foreign. Read it before the rows, as with {@link TaskService#getTasksVersion()}.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getCommentsVersion(Long todoId) {
+        User user = userService.getCurrentUser();
+        return taskRepository.findCommentsVersion(user.getId(), todoId).map(version -> todoId + "." + version);
+    }
+
+    /**
+     * Feeds every comment of an owned task to {@code action} from a forward-only cursor. Rows are
+     * projected, not hydrated, so memory stays flat however long the thread is.
+     */
+    @Transactional(readOnly = true)
+    public void forEachComment(Long todoId, Consumer<CommentResource> action) {
+        User user = userService.getCurrentUser();
+        try (Stream<CommentResource> comments = repository.streamOwned(user, todoId)) {
+            comments.forEach(action);
+        }
     }
 
+    @Transactional
     public Comment createComment(Comment comment, Task task) {
+        Long userId = task.getUser().getId();
         comment.setTask(task);
+        comment.setUserId(userId);
+        comment.setChangeSeq(changeTracker.next(userId, ChangeTracker.Kind.COMMENT));
         Comment saved = repository.save(comment);
-        log.info("Created comment ID={} for task ID={}", saved.getId(), task.getId());
+        cacheEvictor.evictAfterCommit(task.getId());
+        taskRepository.recordCommentChange(task.getId(), 1);
+        log.debug("Created comment ID={} for task ID={}", saved.getId(), task.getId());
         return saved;
     }
 
+    @Transactional
     public Comment updateComment(Long id, String text) {
-        return repository.findById(id)
+        User user = userService.getCurrentUser();
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.COMMENT);
+        return repository.findOwnedById(id, user)
                 .map(comment -> {
-                    log.info("Updated comment ID={}", id);
+                    log.debug("Updated comment ID={}", id);
                     comment.setText(text);
+                    comment.setChangeSeq(changeSeq);
+                    taskRepository.recordCommentChange(comment.getTask().getId(), 0);
                     return repository.save(comment);
                 })
                 .orElseGet(() -> {
-                    log.warn("Attempt to update non-existent comment ID={}", id);
+                    log.warn("Attempt to update non-existent or foreign comment ID={}", id);
                     return null;
                 });
     }
 
+    @Transactional
     public void deleteComment(Long id) {
-        if (!repository.existsById(id)) {
-            log.warn("Attempt to delete non-existent comment ID={}", id);
+        User user = userService.getCurrentUser();
+        // claimed first: the user row lock has to come before the task row lock the counter update takes
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.COMMENT);
+        Optional<Comment> comment = repository.findOwnedById(id, user);
+        if (comment.isEmpty()) {
+            log.warn("Attempt to delete non-existent or foreign comment ID={}", id);
             return;
         }
-        repository.deleteById(id);
-        log.info("Deleted comment ID={}", id);
+        repository.delete(comment.get());
+        Long taskId = comment.get().getTask().getId();
+        cacheEvictor.evictAfterCommit(taskId);
+        taskRepository.recordCommentChange(taskId, -1);
+        changeTracker.recordDeletes(user.getId(), ChangeTracker.Kind.COMMENT, List.of(id), changeSeq);
+        log.debug("Deleted comment ID={}", id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,308 @@
+package io.github.michael_altf4.tasker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.michael_altf4.tasker.rest.resource.SyncCommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.repository.CommentRepository;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index per user for databases without full-text search (H2 in tests, benchmarks and the
+ * load test). A user's index is built on their first search and then caught up from the change
+ * sequence and tombstones used by delta sync, so each search costs one sequence lookup plus the
+ * rows changed since the previous one. Words are split on anything but letters and digits and
+ * lowercased, like the {@code simple} configuration of the PostgreSQL index; every word must match.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tasker.search.engine", havingValue = "memory")
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    public static final String CACHE_NAME = "search-index";
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final float TITLE_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+    private static final Comparator<SearchHit> BEST_FIRST = Comparator.comparingDouble(SearchHit::rank)
+            .thenComparing(SearchHit::taskId).reversed();
+
+    private final Cache<Long, UserIndex> indexes;
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ChangeTracker changeTracker;
+
+    public InMemoryTaskSearchIndex(TaskRepository taskRepository, CommentRepository commentRepository,
+                                   ChangeTracker changeTracker, MeterRegistry meterRegistry,
+                                   @Value("${tasker.search.memory.maximum-users:1000}") long maximumUsers) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.changeTracker = changeTracker;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, CACHE_NAME);
+    }
+
+    @Override
+    public List<SearchHit> search(Long userId, String query, SearchCursor after, int limit) {
+        Set<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        UserIndex index = indexes.get(userId, UserIndex::new);
+        synchronized (index) {
+            refresh(index);
+            return index.search(terms, after, limit);
+        }
+    }
+
+    private void refresh(UserIndex index) {
+        Instant syncedAt = Instant.now();
+        long current = changeTracker.current(index.userId);
+        if (index.syncedAt == null || index.syncedAt.isBefore(changeTracker.oldestCompleteToken())) {
+            // rows that predate change tracking carry sequence 0
+            index.clear();
+            index.addAll(taskRepository.findChangedSince(index.userId, -1),
+                    commentRepository.findChangedSince(index.userId, -1));
+            log.debug("Built search index of user {}: {} tasks, {} comments",
+                    index.userId, index.tasks.documents.size(), index.comments.documents.size());
+        } else if (current > index.changeSeq) {
+            for (ChangeTracker.Tombstone tombstone : changeTracker.findDeletesSince(index.userId, index.changeSeq)) {
+                if (tombstone.kind() == ChangeTracker.Kind.TASK) {
+                    index.removeTask(tombstone.id());
+                } else {
+                    index.removeComment(tombstone.id());
+                }
+            }
+            index.addAll(taskRepository.findChangedSince(index.userId, index.changeSeq),
+                    commentRepository.findChangedSince(index.userId, index.changeSeq));
+        }
+        index.changeSeq = current;
+        index.syncedAt = syncedAt;
+    }
+
+    private static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text != null) {
+            for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static Map<String, Float> weigh(Map<String, Float> weights, String text, float weight) {
+        for (String word : terms(text)) {
+            weights.merge(word, weight, Float::sum);
+        }
+        return weights;
+    }
+
+    /**
+     * Terms of one task or comment with their summed field weights. Term strings are the index's own
+     * instances, so each distinct word is stored once per user.
+     */
+    private record Document(Long taskId, String[] terms, float[] weights) {
+
+        private double rank(Set<String> query) {
+            double rank = 0;
+            for (String term : query) {
+                for (int i = 0; i < terms.length; i++) {
+                    if (terms[i].equals(term)) {
+                        rank += weights[i];
+                        break;
+                    }
+                }
+            }
+            return rank / query.size();
+        }
+    }
+
+    /** Sorted ids of the documents containing one term; new ids usually append at the end. */
+    private static final class Postings {
+
+        private final String term;
+        private long[] ids = new long[2];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /** The tasks or the comments of one user. */
+    private static final class Documents {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        private void put(Long id, Long taskId, Map<String, Float> weights) {
+            remove(id);
+            String[] terms = new String[weights.size()];
+            float[] termWeights = new float[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                termPostings.add(id);
+                terms[i] = termPostings.term;
+                termWeights[i++] = entry.getValue();
+            }
+            documents.put(id, new Document(taskId, terms, termWeights));
+        }
+
+        private void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Postings termPostings = postings.get(term);
+                termPostings.remove(id);
+                if (termPostings.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        private void clear() {
+            documents.clear();
+            postings.clear();
+        }
+
+        /** Ranks every document containing all {@code terms}, keeping the best rank per task. */
+        private void collect(Set<String> terms, Map<Long, Double> ranks) {
+            Postings smallest = null;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    return;
+                }
+                if (smallest == null || termPostings.size < smallest.size) {
+                    smallest = termPostings;
+                }
+            }
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                boolean all = true;
+                for (String term : terms) {
+                    if (!postings.get(term).contains(id)) {
+                        all = false;
+                        break;
+                    }
+                }
+                if (all) {
+                    Document document = documents.get(id);
+                    ranks.merge(document.taskId(), document.rank(terms), Math::max);
+                }
+            }
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final Long userId;
+        private long changeSeq;
+        private Instant syncedAt;
+        private final Documents tasks = new Documents();
+        private final Documents comments = new Documents();
+
+        private UserIndex(Long userId) {
+            this.userId = userId;
+        }
+
+        private void clear() {
+            tasks.clear();
+            comments.clear();
+        }
+
+        private void addAll(List<TaskResource> changedTasks, List<SyncCommentResource> changedComments) {
+            for (TaskResource task : changedTasks) {
+                Map<String, Float> weights = weigh(new HashMap<>(), task.getTitle(), TITLE_WEIGHT);
+                tasks.put(task.getId(), task.getId(), weigh(weights, task.getDescription(), DESCRIPTION_WEIGHT));
+            }
+            for (SyncCommentResource comment : changedComments) {
+                comments.put(comment.getId(), comment.getTaskId(),
+                        weigh(new HashMap<>(), comment.getText(), (float) COMMENT_WEIGHT));
+            }
+        }
+
+        /** Deleting a task cascades to its comments without tombstones of their own. */
+        private void removeTask(Long taskId) {
+            tasks.remove(taskId);
+            List<Long> taskComments = new ArrayList<>();
+            comments.documents.forEach((id, document) -> {
+                if (document.taskId().equals(taskId)) {
+                    taskComments.add(id);
+                }
+            });
+            taskComments.forEach(comments::remove);
+        }
+
+        private void removeComment(Long commentId) {
+            comments.remove(commentId);
+        }
+
+        private List<SearchHit> search(Set<String> terms, SearchCursor after, int limit) {
+            Map<Long, Double> ranks = new HashMap<>();
+            tasks.collect(terms, ranks);
+            comments.collect(terms, ranks);
+            List<SearchHit> hits = new ArrayList<>(ranks.size());
+            ranks.forEach((taskId, rank) -> {
+                SearchHit hit = new SearchHit(taskId, rank);
+                if (after == null || after.precedes(hit)) {
+                    hits.add(hit);
+                }
+            });
+            hits.sort(BEST_FIRST);
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        }
+    }
+}
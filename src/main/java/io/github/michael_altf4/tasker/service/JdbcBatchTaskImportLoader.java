@@ -0,0 +1,39 @@
+package io.github.michael_altf4.tasker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts imported rows with JDBC batches of {@code tasker.import.jdbc-batch-size} statements, for
+ * databases without {@code COPY} (H2 in tests, benchmarks and the load test).
+ */
+@Component
+@ConditionalOnProperty(name = "tasker.import.loader", havingValue = "batch")
+public class JdbcBatchTaskImportLoader extends TaskImportLoader {
+
+    private final int jdbcBatchSize;
+
+    public JdbcBatchTaskImportLoader(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                     @Value("${tasker.import.jdbc-batch-size:500}") int jdbcBatchSize) {
+        super(jdbcTemplate, entityManagerFactory);
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    protected void insert(String table, String columns, List<Object[]> rows) {
+        int columnCount = columns.split(",").length;
+        String sql = "INSERT INTO " + table + " (" + columns + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows, jdbcBatchSize, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                ps.setObject(i + 1, row[i]);
+            }
+        });
+    }
+}
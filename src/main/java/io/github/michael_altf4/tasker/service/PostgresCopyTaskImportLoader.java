@@ -0,0 +1,72 @@
+package io.github.michael_altf4.tasker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Streams imported rows into PostgreSQL with {@code COPY ... FROM STDIN} in CSV format: one round
+ * trip per table and batch, and no per-row statement parsing or index round trips. The copy runs
+ * on the transaction's connection, so it commits or rolls back with the rest of the batch.
+ */
+@Component
+@ConditionalOnProperty(name = "tasker.import.loader", havingValue = "copy", matchIfMissing = true)
+public class PostgresCopyTaskImportLoader extends TaskImportLoader {
+
+    public PostgresCopyTaskImportLoader(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        super(jdbcTemplate, entityManagerFactory);
+    }
+
+    @Override
+    protected void insert(String table, String columns, List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                value(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+        String sql = "COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)";
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * An unquoted empty field is NULL in CSV mode, so strings are always quoted and an empty one
+     * stays empty.
+     */
+    private static void value(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String text) {
+            csv.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    csv.append('"');
+                }
+                csv.append(c);
+            }
+            csv.append('"');
+        } else {
+            csv.append(value);
+        }
+    }
+}
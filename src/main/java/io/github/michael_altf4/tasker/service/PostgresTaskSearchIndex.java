@@ -0,0 +1,53 @@
+package io.github.michael_altf4.tasker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Searches the generated {@code search_vector} columns through their GIN indexes (migration V9).
+ * The query accepts web-search syntax: quoted phrases, {@code or} and {@code -word}.
+ */
+@Component
+@ConditionalOnProperty(name = "tasker.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresTaskSearchIndex implements TaskSearchIndex {
+
+    private static final String SEARCH = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', ?) AS query),
+            hits AS (
+                SELECT t.id AS task_id, ts_rank(t.search_vector, q.query)::float8 AS rank
+                FROM task t, q
+                WHERE t.user_id = ? AND t.deleted_at IS NULL AND t.search_vector @@ q.query
+                UNION ALL
+                SELECT c.todo_item_id, ts_rank(c.search_vector, q.query)::float8 * ?
+                FROM comment c JOIN task ct ON ct.id = c.todo_item_id AND ct.deleted_at IS NULL, q
+                WHERE c.user_id = ? AND c.search_vector @@ q.query
+            )
+            SELECT task_id, max(rank) AS rank
+            FROM hits
+            GROUP BY task_id
+            %s
+            ORDER BY rank DESC, task_id DESC
+            LIMIT ?""";
+
+    private static final String FIRST_PAGE = SEARCH.formatted("");
+    private static final String NEXT_PAGE = SEARCH.formatted("HAVING max(rank) < ? OR (max(rank) = ? AND task_id < ?)");
+
+    private static final RowMapper<SearchHit> HIT = (rs, rowNum) -> new SearchHit(rs.getLong("task_id"), rs.getDouble("rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<SearchHit> search(Long userId, String query, SearchCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE, HIT, query, userId, COMMENT_WEIGHT, userId, limit);
+        }
+        return jdbcTemplate.query(NEXT_PAGE, HIT, query, userId, COMMENT_WEIGHT, userId,
+                after.rank(), after.rank(), after.id(), limit);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in search results: the rank of the last returned task plus its id as a
+ * tie-breaker. Ranks are recomputed per page, so a task edited between pages may move or repeat.
+ */
+public record SearchCursor(double rank, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static SearchCursor of(SearchHit hit) {
+        return new SearchCursor(hit.rank(), hit.taskId());
+    }
+
+    /** Whether a hit sorts after this position in rank-descending, id-descending order. */
+    public boolean precedes(SearchHit hit) {
+        int byRank = Double.compare(hit.rank(), rank);
+        return byRank < 0 || byRank == 0 && hit.taskId() < id;
+    }
+
+    public String encode() {
+        String raw = rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            return new SearchCursor(Double.parseDouble(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("INVALID_CURSOR", "Cursor is malformed");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * A task matching a search, directly or through one of its comments, with the higher of the two ranks.
+ */
+public record SearchHit(Long taskId, double rank) {
+}
@@ -0,0 +1,11 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.rest.resource.SyncCommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+
+import java.util.List;
+
+public record SyncChanges(List<TaskResource> tasks, List<SyncCommentResource> comments,
+                          List<Long> deletedTaskIds, List<Long> deletedCommentIds,
+                          String token, boolean reset) {
+}
@@ -0,0 +1,57 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.rest.resource.SyncCommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.CommentRepository;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class SyncService {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ChangeTracker changeTracker;
+    private final UserService userService;
+
+    /**
+     * Returns what changed for the current user after {@code token}, or a full snapshot when there is
+     * no token or it is older than the tombstone retention. The sequence is read before the rows, so
+     * a change racing with the sync is at worst sent again next time, never skipped.
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges changesSince(String token) {
+        SyncToken since = token != null ? SyncToken.decode(token) : null;
+        User user = userService.getCurrentUser();
+        boolean reset = since == null || since.issuedAt().isBefore(changeTracker.oldestCompleteToken());
+        SyncToken next = new SyncToken(changeTracker.current(user.getId()), Instant.now());
+
+        // rows that predate change tracking carry sequence 0
+        long after = reset ? -1 : since.changeSeq();
+        List<TaskResource> tasks = taskRepository.findChangedSince(user.getId(), after);
+        List<SyncCommentResource> comments = commentRepository.findChangedSince(user.getId(), after);
+        List<Long> deletedTaskIds = new ArrayList<>();
+        List<Long> deletedCommentIds = new ArrayList<>();
+        if (!reset) {
+            for (ChangeTracker.Tombstone tombstone : changeTracker.findDeletesSince(user.getId(), after)) {
+                (tombstone.kind() == ChangeTracker.Kind.TASK ? deletedTaskIds : deletedCommentIds).add(tombstone.id());
+            }
+        }
+        log.debug("Sync for user: {} after change {}: {} tasks, {} comments, {} deletions",
+                user.getUsername(), after, tasks.size(), comments.size(), deletedTaskIds.size() + deletedCommentIds.size());
+        return new SyncChanges(tasks, comments, deletedTaskIds, deletedCommentIds, next.encode(), reset);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync position: the user's change sequence at the time of the sync, and when it was
+ * issued, so tokens older than the tombstone retention can be recognised.
+ */
+public record SyncToken(long changeSeq, Instant issuedAt) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = changeSeq + SEPARATOR + issuedAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected token format");
+            }
+            return new SyncToken(Long.parseLong(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("INVALID_TOKEN", "Sync token is malformed");
+        }
+    }
+}
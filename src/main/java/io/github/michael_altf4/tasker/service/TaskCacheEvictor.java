@@ -0,0 +1,80 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Drops tasks from the second-level cache after writes that go past Hibernate over JDBC. Call it in
+ * the writing transaction before the write. Cached query results on the {@code task} table are
+ * invalidated the way Hibernate does for its own writes: the table is marked as changing until the
+ * transaction ends, then as changed at that instant, so a page read from the old rows is never
+ * served, even if it was stored after the commit. Entities are evicted after the commit, since a
+ * reader evicting earlier could cache the old row again.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskCacheEvictor {
+
+    /** Query space of every query on tasks, named after the table. */
+    private static final String[] TASK_SPACES = {"task"};
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictAfterCommit(Long taskId) {
+        evictAfterCommit(List.of(taskId));
+    }
+
+    public void evictAfterCommit(Collection<Long> taskIds) {
+        invalidate(cache -> taskIds.forEach(taskId -> cache.evictEntityData(Task.class, taskId)));
+    }
+
+    /**
+     * For rows inserted over JDBC: no task is cached yet, but cached list pages are missing them.
+     */
+    public void evictPagesAfterCommit() {
+        invalidate(cache -> {
+        });
+    }
+
+    public void evictAllAfterCommit() {
+        invalidate(cache -> cache.evictEntityData(Task.class));
+    }
+
+    private void invalidate(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            cache.evictQueryRegion(TaskRepositoryCustom.PAGE_CACHE_REGION);
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(TASK_SPACES, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // on rollback too, or the table would read as changing until the pre-invalidation times out
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    eviction.accept(cache);
+                }
+                timestamps.invalidate(TASK_SPACES, session);
+            }
+        });
+    }
+}
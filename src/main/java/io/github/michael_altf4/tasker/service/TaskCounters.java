@@ -0,0 +1,117 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Denormalized counters: {@code task.comment_count} and the open and completed task counts on
+ * {@code app_user}. Write paths adjust them with relative updates in the writing transaction, after
+ * {@link ChangeTracker#next} has locked the user row, so concurrent writers never lose an increment.
+ * The columns are written over JDBC and never through the entities; comment counts move together
+ * with the thread version in {@link io.github.michael_altf4.tasker.storage.repository.TaskRepositoryCustom#recordCommentChange}.
+ * {@link #reconcileAll()} recounts them from the rows and counts every repair in {@code tasker.counters.repaired}.
+ */
+@Slf4j
+@Component
+public class TaskCounters {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCacheEvictor cacheEvictor;
+    private final Counter repaired;
+
+    public TaskCounters(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        TaskCacheEvictor cacheEvictor, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheEvictor = cacheEvictor;
+        this.repaired = Counter.builder("tasker.counters.repaired")
+                .description("Users whose task or comment counters had drifted and were recounted")
+                .register(meterRegistry);
+    }
+
+    public void tasksAdded(Long userId, long open, long completed) {
+        adjust(userId, open, completed);
+    }
+
+    public void tasksRemoved(Long userId, long open, long completed) {
+        adjust(userId, -open, -completed);
+    }
+
+    /**
+     * {@code count} tasks moved from open to completed, or back when {@code completed} is false.
+     */
+    public void tasksCompleted(Long userId, long count, boolean completed) {
+        adjust(userId, completed ? -count : count, completed ? count : -count);
+    }
+
+    public TaskStats get(Long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT open_task_count, completed_task_count FROM app_user WHERE id = ?",
+                (rs, row) -> new TaskStats(rs.getLong(1), rs.getLong(2)), userId);
+    }
+
+    @Scheduled(fixedDelayString = "${tasker.counters.reconcile-interval:6h}",
+            initialDelayString = "${tasker.counters.reconcile-interval:6h}")
+    public void reconcileAll() {
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM app_user ORDER BY id", Long.class);
+        for (Long userId : userIds) {
+            try {
+                reconcile(userId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile counters for user ID={}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recounts one user's counters under the user row lock, which every write to their tasks and
+     * comments takes first, so no write is in flight while the rows are counted.
+     * Returns true if anything had drifted.
+     */
+    public boolean reconcile(Long userId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM app_user WHERE id = ? FOR UPDATE", Long.class, userId);
+            TaskStats actual = jdbcTemplate.queryForObject("""
+                            SELECT count(*) - count(CASE WHEN completed = TRUE THEN 1 END),
+                                   count(CASE WHEN completed = TRUE THEN 1 END)
+                            FROM task WHERE user_id = ? AND deleted_at IS NULL""",
+                    (rs, row) -> new TaskStats(rs.getLong(1), rs.getLong(2)), userId);
+            int users = jdbcTemplate.update("""
+                            UPDATE app_user SET open_task_count = ?, completed_task_count = ?
+                            WHERE id = ? AND (open_task_count <> ? OR completed_task_count <> ?)""",
+                    actual.open(), actual.completed(), userId, actual.open(), actual.completed());
+            int tasks = jdbcTemplate.update("""
+                    UPDATE task SET comment_count = (SELECT count(*) FROM comment c WHERE c.todo_item_id = task.id)
+                    WHERE user_id = ? AND deleted_at IS NULL
+                      AND comment_count <> (SELECT count(*) FROM comment c WHERE c.todo_item_id = task.id)""",
+                    userId);
+            if (tasks > 0) {
+                // after the update, as only its count tells; still before the commit, which is what matters
+                cacheEvictor.evictAllAfterCommit();
+            }
+            if (users + tasks == 0) {
+                return false;
+            }
+            log.warn("Repaired drifted counters of user ID={} ({} task comment counts)", userId, tasks);
+            repaired.increment();
+            return true;
+        }));
+    }
+
+    private void adjust(Long userId, long openDelta, long completedDelta) {
+        if (openDelta == 0 && completedDelta == 0) {
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE app_user SET open_task_count = open_task_count + ?, completed_task_count = completed_task_count + ?
+                WHERE id = ?""", openDelta, completedDelta, userId);
+    }
+}
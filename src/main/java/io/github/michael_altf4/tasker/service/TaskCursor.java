@@ -0,0 +1,46 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a task listing: the sort key of the last returned task plus its id
+ * as a tie-breaker. Only {@code createdAt} or {@code position} is set, depending on {@link #sort()}.
+ */
+public record TaskCursor(TaskSort sort, LocalDateTime createdAt, Long position, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor of(TaskResource task, TaskSort sort) {
+        return sort == TaskSort.POSITION
+                ? new TaskCursor(sort, null, task.getPosition(), task.getId())
+                : new TaskCursor(sort, task.getCreatedAt(), null, task.getId());
+    }
+
+    public String encode() {
+        Object key = sort == TaskSort.POSITION ? position : createdAt;
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor, TaskSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(expectedSort.name())) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            Long id = Long.valueOf(parts[2]);
+            return expectedSort == TaskSort.POSITION
+                    ? new TaskCursor(expectedSort, null, Long.valueOf(parts[1]), id)
+                    : new TaskCursor(expectedSort, LocalDateTime.parse(parts[1]), null, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("INVALID_CURSOR", "Cursor is malformed");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+
+import java.util.Iterator;
+
+/**
+ * One exported task with its comments, oldest first. {@code comments} reads straight off the export's
+ * comment cursor and is only valid until the next task is handed out.
+ */
+public record TaskExport(TaskResource task, Iterator<CommentResource> comments) {
+}
@@ -0,0 +1,94 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+import io.github.michael_altf4.tasker.rest.resource.SyncCommentResource;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.CommentRepository;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class TaskExportService {
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final UserService userService;
+
+    /**
+     * Feeds every task of the current user to {@code action} in id order, each with its comments.
+     * Tasks and comments come from two forward-only cursors sorted by task id and are merge-joined,
+     * so the whole export is two queries and memory stays flat however much there is. Repeatable
+     * read gives both cursors the same snapshot, so no comment shows up without its task.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long forEachTask(Consumer<TaskExport> action) {
+        User user = userService.getCurrentUser();
+        long exported = 0;
+        try (Stream<TaskResource> tasks = taskRepository.streamAll(user.getId());
+             Stream<SyncCommentResource> comments = commentRepository.streamAll(user.getId())) {
+            CommentMerge merge = new CommentMerge(comments.iterator());
+            for (Iterator<TaskResource> it = tasks.iterator(); it.hasNext(); exported++) {
+                TaskResource task = it.next();
+                action.accept(new TaskExport(task, merge.commentsOf(task.getId())));
+            }
+        }
+        log.debug("Exported {} tasks for user: {}", exported, user.getUsername());
+        return exported;
+    }
+
+    /**
+     * The comment cursor, one row ahead of what has been handed out.
+     */
+    private static final class CommentMerge {
+
+        private final Iterator<SyncCommentResource> rows;
+        private SyncCommentResource head;
+
+        CommentMerge(Iterator<SyncCommentResource> rows) {
+            this.rows = rows;
+            advance();
+        }
+
+        Iterator<CommentResource> commentsOf(Long taskId) {
+            // skips whatever the previous task's consumer left unread
+            while (head != null && head.getTaskId() < taskId) {
+                advance();
+            }
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return head != null && head.getTaskId().equals(taskId);
+                }
+
+                @Override
+                public CommentResource next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    SyncCommentResource comment = head;
+                    advance();
+                    return new CommentResource(comment.getId(), comment.getText(), comment.getCreatedAt());
+                }
+            };
+        }
+
+        private void advance() {
+            head = rows.hasNext() ? rows.next() : null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.storage.model.Priority;
+
+import java.time.LocalDateTime;
+
+public record TaskFilter(Boolean completed, Priority priority, LocalDateTime createdFrom, LocalDateTime createdTo) {
+
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null);
+
+    public TaskFilter {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new BadRequestException("INVALID_CREATED_RANGE", "createdFrom must be before createdTo");
+        }
+    }
+}
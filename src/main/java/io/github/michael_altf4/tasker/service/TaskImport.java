@@ -0,0 +1,17 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.storage.model.Priority;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One task read from an import, with its comments in file order. {@code line} is where it starts in
+ * the upload and is what errors refer to. Null priority and creation time mean the defaults.
+ */
+public record TaskImport(long line, String title, String description, boolean completed, Priority priority,
+                         LocalDateTime createdAt, List<Comment> comments) {
+
+    public record Comment(String text, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * An import stopped part way: a batch failed to commit or the upload could not be read further.
+ * Every line up to {@link #committed()}{@code .line()} was imported or skipped before that, so a
+ * client can resume the upload after it.
+ */
+public class TaskImportAbortedException extends RuntimeException {
+
+    private final TaskImportProgress committed;
+
+    public TaskImportAbortedException(TaskImportProgress committed, Throwable cause) {
+        super("Import stopped after line " + committed.line() + ": " + cause.getMessage(), cause);
+        this.committed = committed;
+    }
+
+    public TaskImportProgress committed() {
+        return committed;
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * A line of an import that was skipped, and why.
+ */
+public record TaskImportError(long line, String code, String message) {
+}
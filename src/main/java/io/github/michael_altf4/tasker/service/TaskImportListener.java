@@ -0,0 +1,14 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * Told about an import as it runs, on the importing thread.
+ */
+public interface TaskImportListener {
+
+    void rejected(TaskImportError error);
+
+    /**
+     * A batch has been committed; it stays imported whatever happens to the rest of the upload.
+     */
+    void committed(TaskImportProgress progress);
+}
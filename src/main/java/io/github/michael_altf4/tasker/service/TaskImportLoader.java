@@ -0,0 +1,104 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.storage.model.Priority;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a batch of imported tasks and their comments in the current transaction, past Hibernate.
+ * Ids are drawn from the same sequences as the entities, a block of {@link #ID_BLOCK_SIZE} per
+ * sequence value as with Hibernate's pooled optimizer, so a batch of a thousand rows costs twenty
+ * sequence calls. Comment counts are written with the task rows instead of adjusted afterwards.
+ * Subclasses decide how the rows reach the database.
+ */
+public abstract class TaskImportLoader {
+
+    /** allocationSize of the task and comment sequence generators. */
+    static final int ID_BLOCK_SIZE = 50;
+
+    static final String TASK_TABLE = "task";
+    static final String TASK_COLUMNS = "id, title, description, completed, priority, created_at, user_id, position, comment_count, change_seq";
+    static final String COMMENT_TABLE = "comment";
+    static final String COMMENT_COLUMNS = "id, text, created_at, todo_item_id, user_id, change_seq";
+
+    protected final JdbcTemplate jdbcTemplate;
+    private final String nextTaskIdBlock;
+    private final String nextCommentIdBlock;
+
+    protected TaskImportLoader(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.nextTaskIdBlock = dialect.getSequenceSupport().getSequenceNextValString("task_seq");
+        this.nextCommentIdBlock = dialect.getSequenceSupport().getSequenceNextValString("comment_seq");
+    }
+
+    /**
+     * Inserts {@code tasks} for the user in order, positioned from {@code firstPosition} in steps of
+     * {@link TaskRankRebalancer#GAP} and stamped with {@code changeSeq}.
+     */
+    public void load(Long userId, long changeSeq, long firstPosition, List<TaskImport> tasks) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int commentCount = 0;
+        for (TaskImport task : tasks) {
+            commentCount += task.comments().size();
+        }
+        IdBlocks taskIds = new IdBlocks(nextTaskIdBlock);
+        IdBlocks commentIds = new IdBlocks(nextCommentIdBlock);
+        List<Object[]> taskRows = new ArrayList<>(tasks.size());
+        List<Object[]> commentRows = new ArrayList<>(commentCount);
+        long position = firstPosition;
+        for (TaskImport task : tasks) {
+            long taskId = taskIds.next();
+            Priority priority = task.priority() != null ? task.priority() : Priority.MEDIUM;
+            taskRows.add(new Object[]{taskId, task.title(), task.description(), task.completed(), priority.name(),
+                    timestamp(task.createdAt(), now), userId, position, task.comments().size(), changeSeq});
+            for (TaskImport.Comment comment : task.comments()) {
+                commentRows.add(new Object[]{commentIds.next(), comment.text(), timestamp(comment.createdAt(), now),
+                        taskId, userId, changeSeq});
+            }
+            position += TaskRankRebalancer.GAP;
+        }
+        insert(TASK_TABLE, TASK_COLUMNS, taskRows);
+        if (!commentRows.isEmpty()) {
+            insert(COMMENT_TABLE, COMMENT_COLUMNS, commentRows);
+        }
+    }
+
+    /**
+     * Inserts {@code rows}, each holding the values of {@code columns} in order.
+     */
+    protected abstract void insert(String table, String columns, List<Object[]> rows);
+
+    private static Timestamp timestamp(LocalDateTime value, Timestamp fallback) {
+        return value != null ? Timestamp.valueOf(value) : fallback;
+    }
+
+    /**
+     * Hands out the ids of one sequence value at a time; a value is the last id of its block.
+     */
+    private final class IdBlocks {
+
+        private final String nextBlock;
+        private long next;
+        private long last = -1;
+
+        IdBlocks(String nextBlock) {
+            this.nextBlock = nextBlock;
+        }
+
+        long next() {
+            if (next > last) {
+                last = jdbcTemplate.queryForObject(nextBlock, Long.class);
+                next = last - ID_BLOCK_SIZE + 1;
+            }
+            return next++;
+        }
+    }
+}
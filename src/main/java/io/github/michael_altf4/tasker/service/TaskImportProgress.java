@@ -0,0 +1,7 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * Totals of an import so far: everything up to {@code line} has been either committed or rejected.
+ */
+public record TaskImportProgress(long line, long tasks, long comments, long rejected) {
+}
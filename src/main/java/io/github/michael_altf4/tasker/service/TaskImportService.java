@@ -0,0 +1,194 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports tasks with their comments for the current user from an upload of any size. Tasks are
+ * validated as they are parsed and written {@code tasker.import.batch-size} rows (tasks plus
+ * comments) at a time, each batch in its own transaction through {@link TaskImportLoader}, so
+ * memory stays flat and an interrupted import keeps what it committed. Each batch claims one
+ * change number, so sync, the change feed and the search index see it like a bulk create.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class TaskImportService {
+
+    public static final int MAX_TITLE_LENGTH = 255;
+
+    private final TaskImportLoader loader;
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final ChangeTracker changeTracker;
+    private final TaskCounters counters;
+    private final TaskMetrics taskMetrics;
+    private final TaskCacheEvictor cacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Counter importedTasks;
+    private final Counter importedComments;
+    private final Counter rejectedLines;
+
+    public TaskImportService(TaskImportLoader loader, TaskRepository taskRepository, UserService userService,
+                             ChangeTracker changeTracker, TaskCounters counters, TaskMetrics taskMetrics,
+                             TaskCacheEvictor cacheEvictor, TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${tasker.import.batch-size:2000}") int batchSize,
+                             @Value("${tasker.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.loader = loader;
+        this.taskRepository = taskRepository;
+        this.userService = userService;
+        this.changeTracker = changeTracker;
+        this.counters = counters;
+        this.taskMetrics = taskMetrics;
+        this.cacheEvictor = cacheEvictor;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.importedTasks = Counter.builder("tasker.import.rows").tag("kind", "task")
+                .description("Rows written by imports")
+                .register(meterRegistry);
+        this.importedComments = Counter.builder("tasker.import.rows").tag("kind", "comment")
+                .description("Rows written by imports")
+                .register(meterRegistry);
+        this.rejectedLines = Counter.builder("tasker.import.rejected")
+                .description("Import entries skipped as malformed or invalid")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads {@code source} to the end. Invalid entries are skipped and passed to the listener, up to
+     * {@code tasker.import.max-reported-errors} of them; later ones are only counted. The listener
+     * hears about every committed batch. Returns the final totals.
+     *
+     * @throws TaskImportAbortedException if a batch fails or the upload breaks off; the batches
+     *                                    committed before stay imported
+     */
+    public TaskImportProgress importTasks(TaskImportSource source, TaskImportListener listener) {
+        User user = userService.getCurrentUser();
+        Totals totals = new Totals();
+        try {
+            readAll(user, source, totals, listener);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import for user: {} stopped after line {}: {}", user.getUsername(), totals.committedLine, e.getMessage());
+            throw new TaskImportAbortedException(totals.committed(), e);
+        }
+        log.debug("Imported {} tasks and {} comments for user: {}, rejected {} entries",
+                totals.tasks, totals.comments, user.getUsername(), totals.rejected);
+        return totals.snapshot();
+    }
+
+    private void readAll(User user, TaskImportSource source, Totals totals, TaskImportListener listener) throws IOException {
+        List<TaskImport> batch = new ArrayList<>();
+        int batchRows = 0;
+        while (true) {
+            TaskImport task;
+            try {
+                task = source.next();
+            } catch (TaskImportSource.InvalidLineException e) {
+                reject(totals, e.toError(), listener);
+                continue;
+            }
+            if (task == null) {
+                break;
+            }
+            totals.line = task.line();
+            TaskImportError error = validate(task);
+            if (error != null) {
+                reject(totals, error, listener);
+                continue;
+            }
+            batch.add(task);
+            batchRows += 1 + task.comments().size();
+            if (batchRows >= batchSize) {
+                commit(user, batch, totals, listener);
+                batch.clear();
+                batchRows = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            commit(user, batch, totals, listener);
+        }
+    }
+
+    private void commit(User user, List<TaskImport> batch, Totals totals, TaskImportListener listener) {
+        long comments = transactionTemplate.execute(status -> {
+            // the change number locks the user row, so positions cannot interleave with other writes
+            long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+            Long maxPosition = taskRepository.findMaxPosition(user);
+            long firstPosition = maxPosition == null ? TaskRankRebalancer.GAP : maxPosition + TaskRankRebalancer.GAP;
+            cacheEvictor.evictPagesAfterCommit();
+            loader.load(user.getId(), changeSeq, firstPosition, batch);
+
+            long completed = batch.stream().filter(TaskImport::completed).count();
+            counters.tasksAdded(user.getId(), batch.size() - completed, completed);
+            return batch.stream().mapToLong(task -> task.comments().size()).sum();
+        });
+        taskMetrics.tasksCreated(batch.size());
+        importedTasks.increment(batch.size());
+        importedComments.increment(comments);
+        totals.tasks += batch.size();
+        totals.comments += comments;
+        totals.committedLine = totals.line;
+        totals.committedRejected = totals.rejected;
+        log.debug("Import for user: {} committed {} tasks up to line {}", user.getUsername(), totals.tasks, totals.line);
+        listener.committed(totals.snapshot());
+    }
+
+    private void reject(Totals totals, TaskImportError error, TaskImportListener listener) {
+        totals.line = Math.max(totals.line, error.line());
+        totals.rejected++;
+        rejectedLines.increment();
+        if (totals.rejected <= maxReportedErrors) {
+            listener.rejected(error);
+        }
+    }
+
+    private static TaskImportError validate(TaskImport task) {
+        if (task.title() == null || task.title().isBlank()) {
+            return new TaskImportError(task.line(), "INVALID_TITLE", "Title must not be blank");
+        }
+        if (task.title().length() > MAX_TITLE_LENGTH) {
+            return new TaskImportError(task.line(), "INVALID_TITLE", "Title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        for (TaskImport.Comment comment : task.comments()) {
+            if (comment.text() == null || comment.text().isBlank()) {
+                return new TaskImportError(task.line(), "INVALID_COMMENT", "Comment text must not be blank");
+            }
+        }
+        return null;
+    }
+
+    private static final class Totals {
+
+        private long line;
+        private long tasks;
+        private long comments;
+        private long rejected;
+        private long committedLine;
+        private long committedRejected;
+
+        TaskImportProgress snapshot() {
+            return new TaskImportProgress(line, tasks, comments, rejected);
+        }
+
+        /** Up to the last committed batch; lines rejected after it are read again on resume. */
+        TaskImportProgress committed() {
+            return new TaskImportProgress(committedLine, tasks, comments, committedRejected);
+        }
+    }
+}
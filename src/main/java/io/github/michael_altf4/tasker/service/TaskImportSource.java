@@ -0,0 +1,31 @@
+package io.github.michael_altf4.tasker.service;
+
+import java.io.IOException;
+
+/**
+ * Tasks parsed incrementally from an upload, one at a time, so the upload is never held in memory.
+ */
+public interface TaskImportSource {
+
+    /**
+     * The next task, or null at the end of the input. A malformed entry is consumed and reported by
+     * throwing {@link InvalidLineException}; the next call carries on after it.
+     */
+    TaskImport next() throws IOException;
+
+    class InvalidLineException extends RuntimeException {
+
+        private final long line;
+        private final String code;
+
+        public InvalidLineException(long line, String code, String message) {
+            super(message);
+            this.line = line;
+            this.code = code;
+        }
+
+        public TaskImportError toError() {
+            return new TaskImportError(line, code, getMessage());
+        }
+    }
+}
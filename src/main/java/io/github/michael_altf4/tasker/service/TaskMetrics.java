@@ -0,0 +1,29 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskMetrics {
+
+    private final Counter created;
+    private final Counter completed;
+
+    public TaskMetrics(MeterRegistry registry) {
+        this.created = Counter.builder("tasker.tasks.created")
+                .description("Tasks created, including bulk and batch creates")
+                .register(registry);
+        this.completed = Counter.builder("tasker.tasks.completed")
+                .description("Tasks moved from open to completed")
+                .register(registry);
+    }
+
+    public void tasksCreated(int count) {
+        created.increment(count);
+    }
+
+    public void tasksCompleted(int count) {
+        completed.increment(count);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+
+import java.util.List;
+
+public record TaskPage(List<TaskResource> tasks, String nextCursor) {
+}
@@ -0,0 +1,154 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Removes the rows of deleted tasks once {@code tasker.purge.undo-window} has passed. Deleting a task
+ * only sets {@code deleted_at}; this job later deletes its comments and then the task, at most
+ * {@code tasker.purge.batch-size} tasks and as many comments per transaction with
+ * {@code tasker.purge.pause} between batches, so a large thread never turns into one long cascading
+ * delete. Each batch locks the tasks it purges before touching their comments, so it never races a
+ * restore: one restored first drops out of the batch, and one waiting on the lock finds its task gone
+ * or past the window. Purged rows are counted in {@code tasker.purge.rows}.
+ * The pauses block a scheduler thread; {@code spring.task.scheduling.pool.size} leaves the other
+ * jobs threads of their own.
+ */
+@Slf4j
+@Component
+public class TaskPurger {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration undoWindow;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatches;
+    private final Counter purgedTasks;
+    private final Counter purgedComments;
+    private final Timer batchTimer;
+
+    public TaskPurger(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                      @Value("${tasker.purge.undo-window:30m}") Duration undoWindow,
+                      @Value("${tasker.purge.batch-size:500}") int batchSize,
+                      @Value("${tasker.purge.pause:100ms}") Duration pause,
+                      @Value("${tasker.purge.max-batches:100}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.undoWindow = undoWindow;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxBatches = maxBatches;
+        this.purgedTasks = Counter.builder("tasker.purge.rows").tag("kind", "task")
+                .description("Rows of deleted tasks removed by the purger")
+                .register(meterRegistry);
+        this.purgedComments = Counter.builder("tasker.purge.rows").tag("kind", "comment")
+                .description("Rows of deleted tasks removed by the purger")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("tasker.purge.batch")
+                .description("Time to purge one batch of rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tasks deleted after this instant can still be restored; older ones are due for purging.
+     */
+    public LocalDateTime restorableSince() {
+        return LocalDateTime.now().minus(undoWindow);
+    }
+
+    /**
+     * Runs batches until nothing is due or {@code tasker.purge.max-batches} have run, leaving the
+     * rest to the next run. Returns the number of rows removed.
+     */
+    @Scheduled(fixedDelayString = "${tasker.purge.interval:5m}", initialDelayString = "${tasker.purge.interval:5m}")
+    public int purge() {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int rows;
+            try {
+                rows = batchTimer.record(this::purgeBatch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to purge deleted tasks: {}", e.getMessage());
+                break;
+            }
+            purged += rows;
+            if (rows == 0 || !pause()) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.debug("Purged {} rows of tasks deleted more than {} ago", purged, undoWindow);
+        }
+        return purged;
+    }
+
+    /**
+     * Comments go first, so the task delete that follows has nothing left to cascade to. A thread
+     * longer than a batch keeps its task locked batch by batch until the last comment is gone.
+     */
+    private int purgeBatch() {
+        Timestamp cutoff = Timestamp.valueOf(restorableSince());
+        Integer rows = transactionTemplate.execute(status -> {
+            List<Long> taskIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM task WHERE deleted_at < ? ORDER BY deleted_at, id LIMIT ? FOR UPDATE",
+                    Long.class, cutoff, batchSize);
+            if (taskIds.isEmpty()) {
+                return 0;
+            }
+            List<Object> args = new ArrayList<>(taskIds);
+            args.add(batchSize);
+            List<Long> commentIds = jdbcTemplate.queryForList("SELECT id FROM comment WHERE todo_item_id IN ("
+                    + String.join(", ", Collections.nCopies(taskIds.size(), "?")) + ") ORDER BY id LIMIT ?",
+                    Long.class, args.toArray());
+            int comments = delete("DELETE FROM comment WHERE id = ?", commentIds);
+            purgedComments.increment(comments);
+            if (commentIds.size() == batchSize) {
+                return comments;
+            }
+            int tasks = delete("DELETE FROM task WHERE id = ?", taskIds);
+            purgedTasks.increment(tasks);
+            return comments + tasks;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private int delete(String sql, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[]{id});
+        }
+        int deleted = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, args)) {
+            deleted += Math.max(count, 0);
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-spreads a user's task positions {@link #GAP} apart. Moves that leave a gap smaller than
+ * {@link #MIN_GAP} queue the user for the next background run; a move that finds no gap at all
+ * rebalances inline. The positions are rewritten over JDBC, which Hibernate does not see, so cached
+ * tasks are evicted once the rebalance commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskRankRebalancer {
+
+    public static final long GAP = 1024;
+    public static final long MIN_GAP = 16;
+
+    private final TaskRepository repository;
+    private final ChangeTracker changeTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCacheEvictor cacheEvictor;
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    public void schedule(Long userId) {
+        pendingUsers.add(userId);
+    }
+
+    public void rebalance(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long changeSeq = changeTracker.next(userId, ChangeTracker.Kind.TASK);
+            List<Long> ids = repository.findIdsInPositionOrder(userId);
+            List<Object[]> args = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                args.add(new Object[]{(i + 1) * GAP, changeSeq, ids.get(i)});
+            }
+            cacheEvictor.evictAllAfterCommit();
+            jdbcTemplate.batchUpdate("UPDATE task SET position = ?, version = version + 1, change_seq = ? WHERE id = ?", args);
+            log.debug("Rebalanced {} task positions for user ID={}", ids.size(), userId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tasker.rank.rebalance-interval:30s}")
+    public void rebalancePending() {
+        Iterator<Long> iterator = pendingUsers.iterator();
+        while (iterator.hasNext()) {
+            Long userId = iterator.next();
+            iterator.remove();
+            try {
+                rebalance(userId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebalance task positions for user ID={}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+}
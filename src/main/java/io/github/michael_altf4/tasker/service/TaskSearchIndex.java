@@ -0,0 +1,19 @@
+package io.github.michael_altf4.tasker.service;
+
+import java.util.List;
+
+/**
+ * Ranked full-text lookup over a user's task titles, descriptions and comments. The implementation
+ * is chosen by {@code tasker.search.engine}.
+ */
+public interface TaskSearchIndex {
+
+    /** Title matches rank above description matches; a comment match counts at this fraction. */
+    double COMMENT_WEIGHT = 0.5;
+
+    /**
+     * Up to {@code limit} of the user's tasks matching every word of {@code query}, best first and
+     * by descending id among equal ranks, strictly after {@code after} when it is given.
+     */
+    List<SearchHit> search(Long userId, String query, SearchCursor after, int limit);
+}
@@ -0,0 +1,67 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class TaskSearchService {
+
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final TaskSearchIndex searchIndex;
+    private final TaskRepository repository;
+    private final UserService userService;
+
+    /**
+     * A page of the current user's tasks whose title, description or comments contain every word of
+     * {@code query}, best match first.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage search(String query, String cursor, int limit) {
+        if (limit < 1 || limit > TaskService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("INVALID_LIMIT", "Limit must be between 1 and " + TaskService.MAX_PAGE_SIZE);
+        }
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("INVALID_QUERY", "Query must be 1 to " + MAX_QUERY_LENGTH + " characters");
+        }
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor) : null;
+        User user = userService.getCurrentUser();
+        log.debug("Searching tasks of user: {} for '{}'", user.getUsername(), query);
+
+        List<SearchHit> hits = searchIndex.search(user.getId(), query.strip(), after, limit + 1);
+        List<SearchHit> page = hits.size() > limit ? hits.subList(0, limit) : hits;
+        if (page.isEmpty()) {
+            return new TaskPage(List.of(), null);
+        }
+        Map<Long, TaskResource> byId = repository.findResourcesByIds(user.getId(), page.stream().map(SearchHit::taskId).toList())
+                .stream()
+                .collect(Collectors.toMap(TaskResource::getId, Function.identity()));
+        List<TaskResource> tasks = new ArrayList<>(page.size());
+        for (SearchHit hit : page) {
+            // a task deleted since the index was read is skipped
+            TaskResource task = byId.get(hit.taskId());
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        String nextCursor = hits.size() > limit ? SearchCursor.of(page.get(limit - 1)).encode() : null;
+        return new TaskPage(tasks, nextCursor);
+    }
+}
@@ -1,63 +1,180 @@
 package io.github.michael_altf4.tasker.service;
 
+import io.github.michael_altf4.tasker.config.MetricsConfig;
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.exception.PreconditionFailedException;
+import io.github.michael_altf4.tasker.rest.resource.BatchOperationResource;
+import io.github.michael_altf4.tasker.rest.resource.BatchOperationResource.Type;
+import io.github.michael_altf4.tasker.rest.resource.BatchResultResource;
+import io.github.michael_altf4.tasker.rest.resource.BatchResultResource.Status;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
 import io.github.michael_altf4.tasker.rest.resource.UpdateTaskResource;
 import io.github.michael_altf4.tasker.storage.model.Task;
 import io.github.michael_altf4.tasker.storage.model.User;
 import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class TaskService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int LEGACY_LIST_LIMIT = 1000;
+    public static final int MAX_BULK_SIZE = 1000;
+
     private final TaskRepository repository;
     private final UserService userService;
+    private final TaskRankRebalancer rankRebalancer;
+    private final TaskMetrics taskMetrics;
+    private final ChangeTracker changeTracker;
+    private final TaskCounters counters;
+    private final TaskPurger purger;
+    private final TaskCacheEvictor cacheEvictor;
+
+
+    /**
+     * @deprecated unbounded listing kept for old clients; returns at most {@link #LEGACY_LIST_LIMIT}
+     * tasks in manual order. Use {@link #getTasks(TaskFilter, TaskSort, String, int)} instead.
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<TaskResource> getAllTasks() {
+        User user = userService.getCurrentUser();
+        log.debug("Fetching up to {} tasks for user: {}", LEGACY_LIST_LIMIT, user.getUsername());
+        return repository.findPage(user, TaskFilter.NONE, TaskSort.POSITION, null, LEGACY_LIST_LIMIT);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskPage getTasks(TaskFilter filter, TaskSort sort, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("INVALID_LIMIT", "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = cursor != null ? TaskCursor.decode(cursor, sort) : null;
+        User user = userService.getCurrentUser();
+        log.debug("Fetching page of {} tasks for user: {} with filter {}", limit, user.getUsername(), filter);
 
+        List<TaskResource> tasks = repository.findPage(user, filter, sort, after, limit + 1);
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<TaskResource> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.of(page.get(limit - 1), sort).encode());
+    }
 
-    public List<Task> getAllTasks() {
+    /**
+     * Identifies the current state of the user's tasks and comments; every write to them changes it.
+     * Read it before the rows, so a concurrent write can only make it older than the data.
+     */
+    @Transactional(readOnly = true)
+    public String getTasksVersion() {
         User user = userService.getCurrentUser();
-        log.debug("Fetching all tasks for user: {}", user.getUsername());
-        return repository.findByUser(user);
+        return user.getId() + "." + changeTracker.current(user.getId());
     }
 
     public Optional<Task> getTodoById(Long id) {
         User user = userService.getCurrentUser();
         log.debug("Fetching task ID={} for user: {}", id, user.getUsername());
-        return repository.findByIdAndUser(id, user);
+        return findOwned(id, user);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TaskResource> getTodoResourceById(Long id) {
+        User user = userService.getCurrentUser();
+        log.debug("Fetching task ID={} for user: {}", id, user.getUsername());
+        return findOwned(id, user).map(task -> new TaskResource(task.getId(), task.getTitle(), task.getDescription(),
+                task.isCompleted(), task.getPriority(), task.getCreatedAt(), task.getPosition(), task.getVersion(),
+                task.getCommentCount()));
+    }
+
+    /**
+     * Open and completed task counts from the counters on the user row, without touching the tasks.
+     */
+    @Transactional(readOnly = true)
+    public TaskStats getStats() {
+        return counters.get(userService.getCurrentUser().getId());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> getTaskVersion(Long id) {
+        return findOwned(id, userService.getCurrentUser()).map(Task::getVersion);
     }
 
+    public boolean isOwnedByCurrentUser(Long id) {
+        return repository.existsByIdAndUser(id, userService.getCurrentUser());
+    }
+
+    @Transactional
     public Task createTask(Task todo) {
         User user = userService.getCurrentUser();
         todo.setUser(user);
+        todo.setPosition(nextPosition(user));
+        todo.setChangeSeq(changeTracker.next(user.getId(), ChangeTracker.Kind.TASK));
         Task saved = repository.save(todo);
-        log.info("Created task ID={} with title '{}' for user: {}",
+        taskMetrics.tasksCreated(1);
+        countAdded(user, List.of(saved));
+        log.debug("Created task ID={} with title '{}' for user: {}",
                 saved.getId(), saved.getTitle(), user.getUsername());
         return saved;
     }
 
+    @Transactional
+    public List<Task> createTasks(List<Task> todos) {
+        User user = userService.getCurrentUser();
+        long position = nextPosition(user);
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        for (Task todo : todos) {
+            todo.setUser(user);
+            todo.setPosition(position);
+            todo.setChangeSeq(changeSeq);
+            position += TaskRankRebalancer.GAP;
+        }
+        List<Task> saved = repository.saveAll(todos);
+        taskMetrics.tasksCreated(saved.size());
+        countAdded(user, saved);
+        log.debug("Created {} tasks for user: {}", saved.size(), user.getUsername());
+        return saved;
+    }
+
+    @Transactional
     public Task updateTask(Long id, UpdateTaskResource resource) {
+        return updateTask(id, resource, null);
+    }
+
+    /**
+     * Applies the update only if the task is still at {@code expectedVersion}; null skips the check.
+     * An update committed by another request after our read still fails at flush on the version column.
+     */
+    @Transactional
+    public Task updateTask(Long id, UpdateTaskResource resource, Long expectedVersion) {
         User user = userService.getCurrentUser();
+        // claimed before the load: the user row lock has to come before the task row lock the flush takes
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
         return repository.findByIdAndUser(id, user)
                 .map(existing -> {
-                    log.info("Updating task ID={} by user: {}", id, user.getUsername());
-                    if (resource.getTitle() != null && !resource.getTitle().trim().isEmpty()) {
-                        existing.setTitle(resource.getTitle().trim());
-                    }
-                    if (resource.getDescription() != null) {
-                        existing.setDescription(resource.getDescription());
-                    }
-                    if (resource.getPriority() != null) {
-                        existing.setPriority(resource.getPriority());
-                    }
-                    if (resource.getCompleted() != null) {
-                        existing.setCompleted(resource.getCompleted());
-                    }
+                    log.debug("Updating task ID={} by user: {}", id, user.getUsername());
+                    requireVersion(existing.getVersion(), expectedVersion);
+                    boolean wasCompleted = existing.isCompleted();
+                    applyUpdate(existing, resource);
+                    countCompletion(user, wasCompleted, existing.isCompleted());
+                    existing.setChangeSeq(changeSeq);
                     return repository.save(existing);
                 })
                 .orElseThrow(() -> {
@@ -67,14 +184,312 @@ public class TaskService {
                 });
     }
 
+    /**
+     * Runs all operations in one transaction. Creates are batch-inserted, updates are applied to
+     * entities loaded with a single query, and complete/reopen/delete run as one set-based statement
+     * each, all scoped to the current user. Invalid or foreign items are reported, not thrown.
+     */
+    @Transactional
+    public List<BatchResultResource> executeBatch(List<BatchOperationResource> operations) {
+        User user = userService.getCurrentUser();
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        BatchResultResource[] results = new BatchResultResource[operations.size()];
+
+        List<Integer> creates = new ArrayList<>();
+        Map<Long, Integer> updates = new HashMap<>();
+        Map<Type, Map<Long, Integer>> setBased = new EnumMap<>(Type.class);
+        Set<Long> seenIds = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationResource operation = operations.get(i);
+            if (operation.getOp() == Type.CREATE) {
+                if (operation.getTitle() == null || operation.getTitle().isBlank()) {
+                    results[i] = BatchResultResource.invalid(i, operation, "INVALID_TITLE", "Title must not be blank");
+                } else {
+                    creates.add(i);
+                }
+            } else if (operation.getId() == null) {
+                results[i] = BatchResultResource.invalid(i, operation, "INVALID_ID", "Id is required");
+            } else if (!seenIds.add(operation.getId())) {
+                results[i] = BatchResultResource.invalid(i, operation, "DUPLICATE_ID", "Task appears more than once in the batch");
+            } else if (operation.getOp() == Type.UPDATE) {
+                updates.put(operation.getId(), i);
+            } else {
+                setBased.computeIfAbsent(operation.getOp(), op -> new HashMap<>()).put(operation.getId(), i);
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            List<Task> tasks = new ArrayList<>(creates.size());
+            long position = nextPosition(user);
+            for (int index : creates) {
+                BatchOperationResource operation = operations.get(index);
+                Task task = new Task(operation.getTitle().trim(), operation.getDescription());
+                if (operation.getPriority() != null) {
+                    task.setPriority(operation.getPriority());
+                }
+                if (operation.getCompleted() != null) {
+                    task.setCompleted(operation.getCompleted());
+                }
+                task.setUser(user);
+                task.setPosition(position);
+                task.setChangeSeq(changeSeq);
+                position += TaskRankRebalancer.GAP;
+                tasks.add(task);
+            }
+            repository.saveAll(tasks);
+            taskMetrics.tasksCreated(tasks.size());
+            countAdded(user, tasks);
+            for (int i = 0; i < creates.size(); i++) {
+                int index = creates.get(i);
+                results[index] = new BatchResultResource(index, Type.CREATE, tasks.get(i).getId(), Status.OK);
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            for (Task existing : repository.findByUserAndIdIn(user, updates.keySet())) {
+                int index = updates.get(existing.getId());
+                boolean wasCompleted = existing.isCompleted();
+                applyUpdate(existing, toUpdateResource(operations.get(index)));
+                countCompletion(user, wasCompleted, existing.isCompleted());
+                existing.setChangeSeq(changeSeq);
+                results[index] = new BatchResultResource(index, Type.UPDATE, existing.getId(), Status.OK);
+            }
+        }
+
+        if (!setBased.isEmpty()) {
+            Set<Long> referenced = new HashSet<>();
+            setBased.values().forEach(ids -> referenced.addAll(ids.keySet()));
+            Set<Long> owned = new HashSet<>(repository.findOwnedIds(user, referenced));
+            setBased.forEach((op, ids) -> {
+                List<Long> targets = new ArrayList<>();
+                ids.forEach((id, index) -> {
+                    if (owned.contains(id)) {
+                        targets.add(id);
+                        results[index] = new BatchResultResource(index, op, id, Status.OK);
+                    }
+                });
+                if (targets.isEmpty()) {
+                    return;
+                }
+                switch (op) {
+                    case COMPLETE -> {
+                        cacheEvictor.evictAfterCommit(targets);
+                        int completed = repository.updateCompleted(user.getId(), targets, true, changeSeq);
+                        taskMetrics.tasksCompleted(completed);
+                        counters.tasksCompleted(user.getId(), completed, true);
+                    }
+                    case REOPEN -> {
+                        cacheEvictor.evictAfterCommit(targets);
+                        int reopened = repository.updateCompleted(user.getId(), targets, false, changeSeq);
+                        counters.tasksCompleted(user.getId(), reopened, false);
+                    }
+                    case DELETE -> {
+                        long completed = repository.countCompleted(user, targets);
+                        cacheEvictor.evictAfterCommit(targets);
+                        int deleted = repository.softDelete(user.getId(), targets, LocalDateTime.now(), changeSeq);
+                        counters.tasksRemoved(user.getId(), deleted - completed, completed);
+                        changeTracker.recordDeletes(user.getId(), ChangeTracker.Kind.TASK, targets, changeSeq);
+                    }
+                    default -> throw new IllegalStateException("Unexpected set-based operation " + op);
+                }
+            });
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                BatchOperationResource operation = operations.get(i);
+                results[i] = new BatchResultResource(i, operation.getOp(), operation.getId(), Status.NOT_FOUND);
+            }
+        }
+        log.debug("Executed batch of {} operations for user: {}", operations.size(), user.getUsername());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Sets the completed flag with one conditional UPDATE instead of a load and save. The task is
+     * read only when no row was updated, to tell a missing task from a stale version or a no-op.
+     * A change number is claimed up front either way; a no-op only leaves a gap in the sequence.
+     */
+    @Transactional
+    public TaskUpdateResult setCompleted(Long id, boolean completed, Long expectedVersion) {
+        User user = userService.getCurrentUser();
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        cacheEvictor.evictAfterCommit(id);
+        int updated = expectedVersion == null
+                ? repository.updateCompleted(user.getId(), List.of(id), completed, changeSeq)
+                : repository.updateCompletedIfVersion(user.getId(), id, completed, expectedVersion, changeSeq);
+        if (updated > 0) {
+            if (completed) {
+                taskMetrics.tasksCompleted(1);
+            }
+            counters.tasksCompleted(user.getId(), updated, completed);
+            log.debug("Set completed={} on task ID={} by user: {}", completed, id, user.getUsername());
+            return TaskUpdateResult.UPDATED;
+        }
+        Optional<Long> version = repository.findVersion(user, id);
+        if (version.isEmpty()) {
+            return TaskUpdateResult.NOT_FOUND;
+        }
+        requireVersion(version.get(), expectedVersion);
+        return TaskUpdateResult.UNCHANGED;
+    }
+
+    /**
+     * Places the task right after {@code afterId}, or first when {@code afterId} is null, by
+     * updating only its own position. Returns false if either task is missing or foreign.
+     */
+    @Transactional
+    public boolean moveTask(Long id, Long afterId) {
+        if (id.equals(afterId)) {
+            throw new BadRequestException("INVALID_POSITION", "Task cannot be placed after itself");
+        }
+        User user = userService.getCurrentUser();
+        Long previous = null;
+        if (afterId != null) {
+            Optional<Long> afterPosition = repository.findPosition(user, afterId);
+            if (afterPosition.isEmpty()) {
+                return false;
+            }
+            previous = afterPosition.get();
+        }
+        OptionalLong position = positionAfter(user, id, previous);
+        if (position.isEmpty()) {
+            log.debug("No gap left after task ID={}, rebalancing positions for user: {}", afterId, user.getUsername());
+            rankRebalancer.rebalance(user.getId());
+            previous = repository.findPosition(user, afterId).orElseThrow();
+            position = positionAfter(user, id, previous);
+        }
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        cacheEvictor.evictAfterCommit(id);
+        if (repository.updatePosition(user.getId(), id, position.getAsLong(), changeSeq) == 0) {
+            return false;
+        }
+        log.debug("Moved task ID={} after task ID={} by user: {}", id, afterId, user.getUsername());
+        return true;
+    }
+
+    /**
+     * Marks the task deleted with one flag update; its comments are left in place. The rows are
+     * removed by {@link TaskPurger} once the undo window has passed, until then
+     * {@link #restoreTask(Long)} brings the task back.
+     */
+    @Transactional
     public void deleteTask(Long id) {
         User user = userService.getCurrentUser();
-        if (!repository.existsByIdAndUser(id, user)) {
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        Optional<Boolean> completed = repository.findCompleted(user, id);
+        cacheEvictor.evictAfterCommit(id);
+        if (completed.isEmpty() || repository.softDelete(user.getId(), List.of(id), LocalDateTime.now(), changeSeq) == 0) {
             log.warn("Attempt to delete non-existent or foreign task ID={} by user: {}",
                     id, user.getUsername());
             throw new RuntimeException("Task not found or access denied");
         }
-        repository.deleteById(id);
-        log.info("Deleted task ID={} by user: {}", id, user.getUsername());
+        changeTracker.recordDeletes(user.getId(), ChangeTracker.Kind.TASK, List.of(id), changeSeq);
+        counters.tasksRemoved(user.getId(), completed.get() ? 0 : 1, completed.get() ? 1 : 0);
+        log.debug("Deleted task ID={} by user: {}", id, user.getUsername());
+    }
+
+    /**
+     * Brings back a task deleted within the undo window, comments included. Returns false if the
+     * task is missing, foreign, not deleted or already due for purging.
+     */
+    @Transactional
+    public boolean restoreTask(Long id) {
+        User user = userService.getCurrentUser();
+        long changeSeq = changeTracker.next(user.getId(), ChangeTracker.Kind.TASK);
+        cacheEvictor.evictAfterCommit(id);
+        Optional<Boolean> completed = repository.restore(user.getId(), id, purger.restorableSince(), changeSeq);
+        if (completed.isEmpty()) {
+            return false;
+        }
+        changeTracker.forgetDelete(user.getId(), ChangeTracker.Kind.TASK, id);
+        counters.tasksAdded(user.getId(), completed.get() ? 0 : 1, completed.get() ? 1 : 0);
+        log.debug("Restored task ID={} by user: {}", id, user.getUsername());
+        return true;
+    }
+
+    /**
+     * Loads by primary key, so a task in the second-level cache costs no query. Ownership is checked
+     * on the lazy owner reference, whose id is known without loading the user.
+     */
+    private Optional<Task> findOwned(Long id, User user) {
+        return repository.findById(id)
+                .filter(task -> task.getDeletedAt() == null)
+                .filter(task -> task.getUser() != null && user.getId().equals(task.getUser().getId()));
+    }
+
+    private void countAdded(User user, List<Task> tasks) {
+        long completed = tasks.stream().filter(Task::isCompleted).count();
+        counters.tasksAdded(user.getId(), tasks.size() - completed, completed);
+    }
+
+    private void countCompletion(User user, boolean wasCompleted, boolean completed) {
+        if (wasCompleted != completed) {
+            counters.tasksCompleted(user.getId(), 1, completed);
+        }
+    }
+
+    private void requireVersion(long actual, Long expectedVersion) {
+        if (expectedVersion != null && actual != expectedVersion) {
+            throw new PreconditionFailedException("VERSION_MISMATCH",
+                    "Task is at version " + actual + ", not " + expectedVersion);
+        }
+    }
+
+    private void applyUpdate(Task existing, UpdateTaskResource resource) {
+        if (resource.getTitle() != null && !resource.getTitle().trim().isEmpty()) {
+            existing.setTitle(resource.getTitle().trim());
+        }
+        if (resource.getDescription() != null) {
+            existing.setDescription(resource.getDescription());
+        }
+        if (resource.getPriority() != null) {
+            existing.setPriority(resource.getPriority());
+        }
+        if (resource.getCompleted() != null) {
+            if (resource.getCompleted() && !existing.isCompleted()) {
+                taskMetrics.tasksCompleted(1);
+            }
+            existing.setCompleted(resource.getCompleted());
+        }
+    }
+
+    private UpdateTaskResource toUpdateResource(BatchOperationResource operation) {
+        UpdateTaskResource resource = new UpdateTaskResource();
+        resource.setTitle(operation.getTitle());
+        resource.setDescription(operation.getDescription());
+        resource.setPriority(operation.getPriority());
+        resource.setCompleted(operation.getCompleted());
+        return resource;
+    }
+
+    private long nextPosition(User user) {
+        Long max = repository.findMaxPosition(user);
+        return max == null ? TaskRankRebalancer.GAP : max + TaskRankRebalancer.GAP;
+    }
+
+    /**
+     * Returns an empty result if there is no free position left between {@code previous} and the next task.
+     */
+    private OptionalLong positionAfter(User user, Long id, Long previous) {
+        Long next = previous == null
+                ? repository.findMinPosition(user, id)
+                : repository.findNextPosition(user, previous, id);
+
+        if (next == null) {
+            return OptionalLong.of(previous == null ? TaskRankRebalancer.GAP : previous + TaskRankRebalancer.GAP);
+        }
+        if (previous == null) {
+            return OptionalLong.of(next - TaskRankRebalancer.GAP);
+        }
+        long gap = next - previous;
+        if (gap < 2) {
+            return OptionalLong.empty();
+        }
+        if (gap < TaskRankRebalancer.MIN_GAP) {
+            rankRebalancer.schedule(user.getId());
+        }
+        return OptionalLong.of(previous + gap / 2);
     }
-}
\ No newline at end of file
+}
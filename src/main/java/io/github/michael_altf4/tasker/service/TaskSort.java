@@ -0,0 +1,8 @@
+package io.github.michael_altf4.tasker.service;
+
+public enum TaskSort {
+    /** {@code createdAt DESC, id DESC} */
+    NEWEST,
+    /** Manual order: {@code position ASC, id ASC} */
+    POSITION
+}
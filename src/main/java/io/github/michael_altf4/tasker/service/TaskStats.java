@@ -0,0 +1,8 @@
+package io.github.michael_altf4.tasker.service;
+
+public record TaskStats(long open, long completed) {
+
+    public long total() {
+        return open + completed;
+    }
+}
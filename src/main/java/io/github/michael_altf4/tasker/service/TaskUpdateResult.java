@@ -0,0 +1,11 @@
+package io.github.michael_altf4.tasker.service;
+
+/**
+ * Outcome of a single-statement task update.
+ */
+public enum TaskUpdateResult {
+    UPDATED,
+    /** The task already had the requested value; nothing was written. */
+    UNCHANGED,
+    NOT_FOUND
+}
@@ -0,0 +1,43 @@
+package io.github.michael_altf4.tasker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cross-request cache of resolved users, keyed by username.
+ * Entries are evicted on write by {@link UserCacheInvalidationListener}.
+ */
+@Component
+public class UserCache {
+
+    public static final String CACHE_NAME = "users";
+
+    private final Cache<String, User> cache;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${tasker.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${tasker.user-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public User get(String username, Function<String, User> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -7,22 +7,45 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".currentUser";
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     public User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = ((UserDetails) principal).getUsername();
-        log.debug("Current user: {}", username);
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.error("User not found in database: {}", username);
-                    return new RuntimeException("User not found");
-                });
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user
+                && user.getUsername().equals(username)) {
+            return user;
+        }
+
+        User user = findByUsername(username);
+        if (user == null) {
+            log.error("User not found in database: {}", username);
+            throw new RuntimeException("User not found");
+        }
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    public User findByUsername(String username) {
+        return userCache.get(username, name -> {
+            log.debug("Loading user: {}", name);
+            return userRepository.findByUsername(name).orElse(null);
+        });
     }
-}
\ No newline at end of file
+}
@@ -4,18 +4,27 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Comment.CACHE_REGION)
 @ToString(exclude = {"task"})
+@EqualsAndHashCode(exclude = {"task"})
 @Schema(description = "Comment on a todo item")
 public class Comment {
 
+    /** Second-level cache region of comments loaded by id or through {@link Task#getComments()}. */
+    public static final String CACHE_REGION = "comment";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     @Schema(description = "Unique comment identifier", example = "1")
     private Long id;
 
@@ -25,8 +34,16 @@ public class Comment {
     @Schema(description = "Creation timestamp", example = "2025-10-05T12:30:45")
     private LocalDateTime createdAt;
 
+    /** Number of the owner's change that last touched this comment; drives delta sync. */
+    @JsonIgnore
+    private long changeSeq;
+
+    /** Owner of the task, copied here so sync finds a user's changed comments without joining tasks. */
+    @JsonIgnore
+    private Long userId;
+
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "todo_item_id")
     private Task task;
 
@@ -6,19 +6,32 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@ToString(exclude = {"comments"})
-@EqualsAndHashCode(exclude = {"comments"})
+@ToString(exclude = {"comments", "user"})
+@EqualsAndHashCode(exclude = {"comments", "user"})
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@SQLRestriction(Task.NOT_DELETED)
 public class Task {
 
+    /** Second-level cache region of tasks loaded by id. */
+    public static final String CACHE_REGION = "task";
+    /** Second-level cache region of the comment ids of each task's thread. */
+    public static final String COMMENTS_CACHE_REGION = "task.comments";
+    /** Added to every query on tasks; native SQL has to repeat it. */
+    public static final String NOT_DELETED = "deleted_at IS NULL";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -31,12 +44,33 @@ public class Task {
 
     private LocalDateTime createdAt;
 
+    @Schema(description = "Manual sort rank within the user's list, gapped so a move updates one row")
+    private long position;
+
+    @Version
+    @Schema(description = "Incremented on every change; sent back in If-Match to detect lost updates")
+    private long version;
+
+    /** Kept up to date over JDBC by comment writes, so it is never written from the entity. */
+    @Column(insertable = false, updatable = false)
+    @Schema(description = "Number of comments on the task")
+    private int commentCount;
+
+    /** Number of the owner's change that last touched this task; drives delta sync. */
+    @JsonIgnore
+    private long changeSeq;
+
+    /** Set when the task is deleted; the row is purged once the undo window has passed. */
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.COMMENTS_CACHE_REGION)
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -1,8 +1,11 @@
 package io.github.michael_altf4.tasker.storage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.michael_altf4.tasker.service.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,10 +16,16 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "app_user")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@EntityListeners(UserCacheInvalidationListener.class)
 public class User implements UserDetails {
 
+    /** Second-level cache region of users loaded by id, such as a task's owner. */
+    public static final String CACHE_REGION = "user";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
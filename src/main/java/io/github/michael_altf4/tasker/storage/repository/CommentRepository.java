@@ -1,13 +1,66 @@
 
 package io.github.michael_altf4.tasker.storage.repository;
 
+import io.github.michael_altf4.tasker.rest.resource.CommentResource;
+import io.github.michael_altf4.tasker.rest.resource.SyncCommentResource;
 import io.github.michael_altf4.tasker.storage.model.Comment;
+import io.github.michael_altf4.tasker.storage.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByTask_Id(Long todoItemId);
-}
\ No newline at end of file
+
+    @Query("select c from Comment c where c.id = :id and c.task.user = :user and c.task.deletedAt is null")
+    Optional<Comment> findOwnedById(@Param("id") Long id, @Param("user") User user);
+
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.CommentResource(c.id, c.text, c.createdAt)
+            from Comment c
+            where c.task.id = :taskId and c.task.user = :user and c.task.deletedAt is null
+            order by c.createdAt, c.id""")
+    List<CommentResource> findOwned(@Param("user") User user, @Param("taskId") Long taskId, Limit limit);
+
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.CommentResource(c.id, c.text, c.createdAt)
+            from Comment c
+            where c.task.id = :taskId and c.task.user = :user and c.task.deletedAt is null
+              and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id))
+            order by c.createdAt, c.id""")
+    List<CommentResource> findOwnedAfter(@Param("user") User user, @Param("taskId") Long taskId,
+                                         @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.CommentResource(c.id, c.text, c.createdAt)
+            from Comment c
+            where c.task.id = :taskId and c.task.user = :user and c.task.deletedAt is null
+            order by c.createdAt, c.id""")
+    Stream<CommentResource> streamOwned(@Param("user") User user, @Param("taskId") Long taskId);
+
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.SyncCommentResource(c.id, c.task.id, c.text, c.createdAt)
+            from Comment c
+            where c.userId = :userId and c.changeSeq > :since and c.task.deletedAt is null
+            order by c.changeSeq, c.id""")
+    List<SyncCommentResource> findChangedSince(@Param("userId") Long userId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.SyncCommentResource(c.id, c.task.id, c.text, c.createdAt)
+            from Comment c
+            where c.userId = :userId and c.task.deletedAt is null
+            order by c.task.id, c.createdAt, c.id""")
+    Stream<SyncCommentResource> streamAll(@Param("userId") Long userId);
+}
@@ -1,18 +1,80 @@
 package io.github.michael_altf4.tasker.storage.repository;
 
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
 import io.github.michael_altf4.tasker.storage.model.Task;
 import io.github.michael_altf4.tasker.storage.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByUser(User user);
-
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     Optional<Task> findByIdAndUser(Long id, User user);
 
     boolean existsByIdAndUser(Long id, User user);
-}
\ No newline at end of file
+
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.TaskResource(
+                t.id, t.title, t.description, t.completed, t.priority, t.createdAt, t.position, t.version, t.commentCount)
+            from Task t where t.user.id = :userId and t.id in :ids""")
+    List<TaskResource> findResourcesByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    List<Task> findByUserAndIdIn(User user, Collection<Long> ids);
+
+    @Query("select t.id from Task t where t.user = :user and t.id in :ids")
+    List<Long> findOwnedIds(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    @Query("select max(t.position) from Task t where t.user = :user")
+    Long findMaxPosition(@Param("user") User user);
+
+    @Query("select t.position from Task t where t.user = :user and t.id = :id")
+    Optional<Long> findPosition(@Param("user") User user, @Param("id") Long id);
+
+    @Query("select min(t.position) from Task t where t.user = :user and t.id <> :excludedId")
+    Long findMinPosition(@Param("user") User user, @Param("excludedId") Long excludedId);
+
+    @Query("select min(t.position) from Task t where t.user = :user and t.position > :position and t.id <> :excludedId")
+    Long findNextPosition(@Param("user") User user, @Param("position") long position, @Param("excludedId") Long excludedId);
+
+    @Query("select t.id from Task t where t.user.id = :userId order by t.position, t.id")
+    List<Long> findIdsInPositionOrder(@Param("userId") Long userId);
+
+    @Query("select t.version from Task t where t.user = :user and t.id = :id")
+    Optional<Long> findVersion(@Param("user") User user, @Param("id") Long id);
+
+    @Query("select count(t) from Task t where t.user = :user and t.id in :ids and t.completed = true")
+    long countCompleted(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    @Query("select t.completed from Task t where t.user = :user and t.id = :id")
+    Optional<Boolean> findCompleted(@Param("user") User user, @Param("id") Long id);
+
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.TaskResource(
+                t.id, t.title, t.description, t.completed, t.priority, t.createdAt, t.position, t.version, t.commentCount)
+            from Task t where t.user.id = :userId and t.changeSeq > :since
+            order by t.changeSeq, t.id""")
+    List<TaskResource> findChangedSince(@Param("userId") Long userId, @Param("since") long since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new io.github.michael_altf4.tasker.rest.resource.TaskResource(
+                t.id, t.title, t.description, t.completed, t.priority, t.createdAt, t.position, t.version, t.commentCount)
+            from Task t where t.user.id = :userId
+            order by t.id""")
+    Stream<TaskResource> streamAll(@Param("userId") Long userId);
+
+    /**
+     * Version of an owned task's comment thread; empty if the task is missing or foreign.
+     */
+    @Query(value = "SELECT comments_version FROM task WHERE id = :id AND user_id = :userId AND deleted_at IS NULL", nativeQuery = true)
+    Optional<Long> findCommentsVersion(@Param("userId") Long userId, @Param("id") Long id);
+}
@@ -0,0 +1,61 @@
+package io.github.michael_altf4.tasker.storage.repository;
+
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskCursor;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    /** Query cache region of the per-user task list pages. */
+    String PAGE_CACHE_REGION = "task-pages";
+
+    /**
+     * Projects a keyset page straight into resources, without loading entities or the owning user.
+     * Results are kept in the {@link #PAGE_CACHE_REGION} query cache until the task table changes.
+     */
+    List<TaskResource> findPage(User user, TaskFilter filter, TaskSort sort, TaskCursor after, int limit);
+
+    /**
+     * Bumps the version of a task's comment thread and adds {@code countDelta} to its comment count.
+     * Runs over JDBC: a native update through Hibernate would clear every second-level cache region.
+     */
+    void recordCommentChange(Long id, int countDelta);
+
+    /**
+     * Moves an owned task to {@code position}. Runs over JDBC like the other single-column writes
+     * here, as a bulk update through Hibernate would evict every cached task; callers evict the task.
+     */
+    int updatePosition(Long userId, Long id, long position, long changeSeq);
+
+    /**
+     * Sets the completed flag of owned tasks, touching only rows whose flag actually changes; the
+     * returned count is the number of transitions. Callers evict the tasks.
+     */
+    int updateCompleted(Long userId, Collection<Long> ids, boolean completed, long changeSeq);
+
+    /**
+     * Like {@link #updateCompleted}, for one task and only while it is still at {@code version}.
+     */
+    int updateCompletedIfVersion(Long userId, Long id, boolean completed, long version, long changeSeq);
+
+    /**
+     * Marks owned tasks deleted; their rows and comments stay until
+     * {@link io.github.michael_altf4.tasker.service.TaskPurger} removes them. Runs over JDBC: a bulk
+     * update through Hibernate would evict every cached task, so callers evict the ids they deleted.
+     */
+    int softDelete(Long userId, Collection<Long> ids, LocalDateTime deletedAt, long changeSeq);
+
+    /**
+     * Clears the deleted flag of a task deleted after {@code deletedAfter} and stamps its comments with
+     * {@code changeSeq}, so sync clients get the thread back. Returns the task's completed flag, or an
+     * empty result if there is no such task. Runs over JDBC, as the entity mapping hides deleted rows.
+     */
+    Optional<Boolean> restore(Long userId, Long id, LocalDateTime deletedAfter, long changeSeq);
+}
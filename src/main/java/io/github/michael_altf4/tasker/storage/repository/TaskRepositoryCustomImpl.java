@@ -0,0 +1,157 @@
+package io.github.michael_altf4.tasker.storage.repository;
+
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskCursor;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<TaskResource> findPage(User user, TaskFilter filter, TaskSort sort, TaskCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskResource> query = cb.createQuery(TaskResource.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user"), user));
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(task.get("completed"), filter.completed()));
+        }
+        if (filter.priority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.priority()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(task.<LocalDateTime>get("createdAt"), filter.createdTo()));
+        }
+        if (sort == TaskSort.POSITION) {
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.greaterThan(task.<Long>get("position"), after.position()),
+                        cb.and(
+                                cb.equal(task.get("position"), after.position()),
+                                cb.greaterThan(task.<Long>get("id"), after.id()))));
+            }
+            query.orderBy(cb.asc(task.get("position")), cb.asc(task.get("id")));
+        } else {
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(task.<LocalDateTime>get("createdAt"), after.createdAt()),
+                        cb.and(
+                                cb.equal(task.get("createdAt"), after.createdAt()),
+                                cb.lessThan(task.<Long>get("id"), after.id()))));
+            }
+            query.orderBy(cb.desc(task.get("createdAt")), cb.desc(task.get("id")));
+        }
+
+        query.select(cb.construct(TaskResource.class,
+                        task.get("id"),
+                        task.get("title"),
+                        task.get("description"),
+                        task.get("completed"),
+                        task.get("priority"),
+                        task.get("createdAt"),
+                        task.get("position"),
+                        task.get("version"),
+                        task.get("commentCount")))
+                .where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, PAGE_CACHE_REGION)
+                .getResultList();
+    }
+
+    @Override
+    public void recordCommentChange(Long id, int countDelta) {
+        jdbcTemplate.update("UPDATE task SET comments_version = comments_version + 1, comment_count = comment_count + ? WHERE id = ?",
+                countDelta, id);
+    }
+
+    @Override
+    public int updatePosition(Long userId, Long id, long position, long changeSeq) {
+        return jdbcTemplate.update("UPDATE task SET position = ?, version = version + 1, change_seq = ? "
+                + "WHERE id = ? AND user_id = ? AND deleted_at IS NULL", position, changeSeq, id, userId);
+    }
+
+    @Override
+    public int updateCompleted(Long userId, Collection<Long> ids, boolean completed, long changeSeq) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 4);
+        args.add(completed);
+        args.add(changeSeq);
+        args.add(userId);
+        args.addAll(ids);
+        args.add(completed);
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("UPDATE task SET completed = ?, version = version + 1, change_seq = ? "
+                + "WHERE user_id = ? AND id IN (" + placeholders + ") AND completed <> ? AND deleted_at IS NULL", args.toArray());
+    }
+
+    @Override
+    public int updateCompletedIfVersion(Long userId, Long id, boolean completed, long version, long changeSeq) {
+        return jdbcTemplate.update("UPDATE task SET completed = ?, version = version + 1, change_seq = ? "
+                        + "WHERE id = ? AND user_id = ? AND version = ? AND completed <> ? AND deleted_at IS NULL",
+                completed, changeSeq, id, userId, version, completed);
+    }
+
+    @Override
+    public int softDelete(Long userId, Collection<Long> ids, LocalDateTime deletedAt, long changeSeq) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 3);
+        args.add(Timestamp.valueOf(deletedAt));
+        args.add(changeSeq);
+        args.add(userId);
+        args.addAll(ids);
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("UPDATE task SET deleted_at = ?, version = version + 1, change_seq = ? "
+                + "WHERE user_id = ? AND id IN (" + placeholders + ") AND deleted_at IS NULL", args.toArray());
+    }
+
+    @Override
+    public Optional<Boolean> restore(Long userId, Long id, LocalDateTime deletedAfter, long changeSeq) {
+        // checks and clears the flag in one statement: the row lock it takes keeps the purger off the thread
+        int restored = jdbcTemplate.update("UPDATE task SET deleted_at = NULL, version = version + 1, change_seq = ? "
+                + "WHERE id = ? AND user_id = ? AND deleted_at > ?", changeSeq, id, userId, Timestamp.valueOf(deletedAfter));
+        if (restored == 0) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update("UPDATE comment SET change_seq = ? WHERE todo_item_id = ?", changeSeq, id);
+        return Optional.of(jdbcTemplate.queryForObject("SELECT completed FROM task WHERE id = ?", Boolean.class, id));
+    }
+}
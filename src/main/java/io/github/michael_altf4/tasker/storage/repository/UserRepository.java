@@ -2,9 +2,18 @@ package io.github.michael_altf4.tasker.storage.repository;
 
 import io.github.michael_altf4.tasker.storage.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    /**
+     * The user's change sequence. Kept off the mapped entity so a cached or stale {@link User}
+     * can never write it back.
+     */
+    @Query(value = "SELECT change_seq FROM app_user WHERE id = :userId", nativeQuery = true)
+    long findChangeSeq(@Param("userId") Long userId);
 }
@@ -0,0 +1,8 @@
+ALTER TABLE task ADD COLUMN comment_count INT DEFAULT 0 NOT NULL;
+UPDATE task SET comment_count = (SELECT count(*) FROM comment c WHERE c.todo_item_id = task.id);
+
+ALTER TABLE app_user ADD COLUMN open_task_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE app_user ADD COLUMN completed_task_count BIGINT DEFAULT 0 NOT NULL;
+UPDATE app_user SET
+    completed_task_count = (SELECT count(*) FROM task t WHERE t.user_id = app_user.id AND t.completed = TRUE),
+    open_task_count = (SELECT count(*) FROM task t WHERE t.user_id = app_user.id AND t.completed IS NOT TRUE);
@@ -0,0 +1,4 @@
+-- Deleted tasks keep their rows, marked with deleted_at, until TaskPurger removes them after the undo window.
+ALTER TABLE task ADD COLUMN deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_task_deleted_at ON task(deleted_at);
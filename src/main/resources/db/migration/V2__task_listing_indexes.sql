@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_task_user_created ON task(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_task_user_completed_created ON task(user_id, completed, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_task_user_priority_created ON task(user_id, priority, created_at, id);
+
+DROP INDEX IF EXISTS idx_task_user_id;
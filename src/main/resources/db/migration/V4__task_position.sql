@@ -0,0 +1,7 @@
+ALTER TABLE task ADD COLUMN position BIGINT;
+
+UPDATE task SET position = id * 1024;
+
+ALTER TABLE task ALTER COLUMN position SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_task_user_position ON task(user_id, position, id);
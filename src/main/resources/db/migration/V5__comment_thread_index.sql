@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_comment_task_created ON comment(todo_item_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_comment_task_id;
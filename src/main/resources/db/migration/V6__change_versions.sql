@@ -0,0 +1,2 @@
+ALTER TABLE app_user ADD COLUMN tasks_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE task ADD COLUMN comments_version BIGINT DEFAULT 0 NOT NULL;
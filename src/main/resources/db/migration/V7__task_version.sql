@@ -0,0 +1 @@
+ALTER TABLE task ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
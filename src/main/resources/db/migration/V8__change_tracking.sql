@@ -0,0 +1,22 @@
+ALTER TABLE app_user RENAME COLUMN tasks_version TO change_seq;
+
+ALTER TABLE task ADD COLUMN change_seq BIGINT DEFAULT 0 NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_task_user_change ON task(user_id, change_seq);
+
+ALTER TABLE comment ADD COLUMN change_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE comment ADD COLUMN user_id BIGINT;
+UPDATE comment SET user_id = (SELECT t.user_id FROM task t WHERE t.id = comment.todo_item_id);
+CREATE INDEX IF NOT EXISTS idx_comment_user_change ON comment(user_id, change_seq);
+
+CREATE TABLE IF NOT EXISTS tombstone (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_tombstone_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_user_change ON tombstone(user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_tombstone_deleted_at ON tombstone(deleted_at);
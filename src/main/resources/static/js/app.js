@@ -116,18 +116,24 @@ document.addEventListener('DOMContentLoaded', function () {
     }
 
     function toggleCompleted(id, completed) {
-        fetch(`${API_URL}/${id}`, {
+        const todo = currentTodos.find(t => t.id === id);
+        fetch(`${API_URL}/${id}/completed`, {
             method: 'PUT',
-            headers: { 'Content-Type': 'application/json' },
+            headers: {
+                'Content-Type': 'application/json',
+                'If-Match': `"${id}.${todo.version}"`
+            },
             body: JSON.stringify({ completed })
         })
-            .then(response => response.json())
-            .then(updatedTodo => {
-                const index = currentTodos.findIndex(t => t.id === id);
-                if (index !== -1) {
-
-                    currentTodos[index] = updatedTodo;
+            .then(response => {
+                if (response.status === 412) {
+                    // changed elsewhere since we loaded it
+                    loadTodos();
+                    return;
                 }
+                if (!response.ok) throw new Error('Ошибка обновления статуса');
+                todo.completed = completed;
+                todo.version = Number(response.headers.get('ETag').replace(/"/g, '').split('.')[1]);
 
                 currentTodos.sort((a, b) => a.completed - b.completed);
                 renderTodoList();
@@ -144,10 +150,27 @@ document.addEventListener('DOMContentLoaded', function () {
             .catch(err => console.error('Ошибка удаления:', err));
     }
 
+    function saveTodoPosition(id, afterId) {
+        fetch(`${API_URL}/${id}/position`, {
+            method: 'PUT',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ afterId })
+        })
+            .then(response => {
+                if (!response.ok) throw new Error('Ошибка сохранения порядка');
+            })
+            .catch(err => {
+                console.error('Ошибка перемещения задачи:', err);
+                loadTodos();
+            });
+    }
+
     function moveTodoUp(index) {
         if (index > 0 && !currentTodos[index].completed && !currentTodos[index - 1].completed) {
+            const afterId = index > 1 ? currentTodos[index - 2].id : null;
             [currentTodos[index - 1], currentTodos[index]] = [currentTodos[index], currentTodos[index - 1]];
             renderTodoList();
+            saveTodoPosition(currentTodos[index - 1].id, afterId);
         }
     }
 
@@ -156,13 +179,39 @@ document.addEventListener('DOMContentLoaded', function () {
         const isActive = !currentTodos[index].completed;
         const isLastActive = isActive && (index === activeTasks.length - 1);
         if (isActive && !isLastActive && index < currentTodos.length - 1) {
+            const afterId = currentTodos[index + 1].id;
             [currentTodos[index], currentTodos[index + 1]] = [currentTodos[index + 1], currentTodos[index]];
             renderTodoList();
+            saveTodoPosition(currentTodos[index + 1].id, afterId);
+        }
+    }
+
+
+    // Reloads the list when a task changes in another tab or device; the reload is a cheap 304
+    // when nothing visible changed. After a reconnect the list is reloaded in case events were missed.
+    function subscribeToChanges() {
+        if (!window.EventSource) {
+            return;
         }
+        const events = new EventSource(API_URL.replace(/tasks$/, 'events'));
+        let reloadTimer = null;
+        const scheduleReload = () => {
+            clearTimeout(reloadTimer);
+            reloadTimer = setTimeout(loadTodos, 200);
+        };
+        let opened = false;
+        events.onopen = () => {
+            if (opened) {
+                scheduleReload();
+            }
+            opened = true;
+        };
+        events.addEventListener('task', scheduleReload);
     }
 
 
     loadTodos();
+    subscribeToChanges();
 
 
     window.addTodo = addTodo;
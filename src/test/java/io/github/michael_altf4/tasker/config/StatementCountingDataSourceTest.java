@@ -0,0 +1,68 @@
+package io.github.michael_altf4.tasker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementCountingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private Statement statement;
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.stop();
+    }
+
+    @Test
+    void shouldCountPreparedAndPlainStatementsOnItsConnections() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        StatementCounter.Statements statements = StatementCounter.start();
+
+        Connection counted = new StatementCountingDataSource(target).getConnection();
+        counted.prepareStatement("UPDATE app_user SET change_seq = change_seq + 1 WHERE id = ?");
+        counted.prepareStatement("UPDATE app_user SET change_seq = change_seq + 1 WHERE id = ?");
+        Statement plain = counted.createStatement();
+        plain.executeQuery("SELECT id FROM app_user WHERE id = 7");
+        plain.close();
+        counted.close();
+
+        assertThat(statements.total()).isEqualTo(3);
+        assertThat(statements.shapes()).containsEntry("UPDATE app_user SET change_seq = change_seq + ? WHERE id = ?", 2)
+                .containsEntry("SELECT id FROM app_user WHERE id = ?", 1);
+        verify(statement).executeQuery("SELECT id FROM app_user WHERE id = 7");
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldPassStatementsThroughOutsideRequests() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT 1")).thenReturn(preparedStatement);
+
+        assertThat(new StatementCountingDataSource(target).getConnection().prepareStatement("SELECT 1"))
+                .isSameAs(preparedStatement);
+    }
+}
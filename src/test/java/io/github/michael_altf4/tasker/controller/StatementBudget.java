@@ -0,0 +1,23 @@
+package io.github.michael_altf4.tasker.controller;
+
+import io.github.michael_altf4.tasker.config.StatementCounter;
+import org.assertj.core.api.AbstractIntegerAssert;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads the statement count the test profile attaches to every response, so API tests can pin
+ * the query budget of an endpoint: {@code assertStatements(response).isLessThanOrEqualTo(3)}.
+ */
+final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    static AbstractIntegerAssert<?> assertStatements(ResponseEntity<?> response) {
+        String count = response.getHeaders().getFirst(StatementCounter.HEADER);
+        assertThat(count).as("%s header", StatementCounter.HEADER).isNotNull();
+        return assertThat(Integer.parseInt(count)).as("SQL statements issued");
+    }
+}
@@ -2,23 +2,44 @@ package io.github.michael_altf4.tasker.controller;
 
 import io.github.michael_altf4.tasker.exception.ErrorResponse;
 import io.github.michael_altf4.tasker.rest.resource.*;
+import io.github.michael_altf4.tasker.service.TaskCounters;
+import io.github.michael_altf4.tasker.service.TaskPurger;
+import io.github.michael_altf4.tasker.service.TaskRankRebalancer;
 import io.github.michael_altf4.tasker.storage.model.Priority;
 import io.github.michael_altf4.tasker.storage.model.Task;
 import io.github.michael_altf4.tasker.storage.model.User;
 import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import static io.github.michael_altf4.tasker.controller.StatementBudget.assertStatements;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -43,6 +64,21 @@ class TaskApiTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskRankRebalancer rankRebalancer;
+
+    @Autowired
+    private TaskCounters counters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskPurger purger;
+
     PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     private TestRestTemplate createAuthenticatedRestTemplate(String username, String password) {
@@ -268,4 +304,682 @@ class TaskApiTest {
         assertThat(response.getBody().getErrorCode()).isEqualTo("INVALID_TEXT");
         assertThat(response.getBody().getMessage()).isEqualTo("must not be blank");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPageThroughFilteredTasksWithCursor() {
+        String username = "pageuser_" + System.currentTimeMillis();
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate(username, "password");
+        for (int i = 0; i < 5; i++) {
+            CreateTaskResource task = new CreateTaskResource();
+            task.setTitle("Задача " + i);
+            task.setPriority(i % 2 == 0 ? Priority.HIGH : Priority.LOW);
+            authRestTemplate.postForEntity("/api/tasks", new HttpEntity<>(task, getJsonHeaders()), TaskResource.class);
+        }
+
+        ResponseEntity<TaskPageResource> first = authRestTemplate.exchange(
+                "/api/tasks/page?priority=HIGH&limit=2", HttpMethod.GET, new HttpEntity<>(getJsonHeaders()), TaskPageResource.class
+        );
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getItems()).hasSize(2);
+        assertThat(first.getBody().getNextCursor()).isNotNull();
+
+        ResponseEntity<TaskPageResource> second = authRestTemplate.exchange(
+                "/api/tasks/page?priority=HIGH&limit=2&cursor={cursor}", HttpMethod.GET, new HttpEntity<>(getJsonHeaders()),
+                TaskPageResource.class, first.getBody().getNextCursor()
+        );
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody().getItems()).hasSize(1);
+        assertThat(second.getBody().getNextCursor()).isNull();
+
+        List<TaskResource> all = new java.util.ArrayList<>(first.getBody().getItems());
+        all.addAll(second.getBody().getItems());
+        assertThat(all).extracting(TaskResource::getTitle).containsExactly("Задача 4", "Задача 2", "Задача 0");
+        assertThat(all).allMatch(t -> t.getPriority().equals("HIGH"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForMalformedCursor() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("testuser", "password");
+        ResponseEntity<ErrorResponse> response = authRestTemplate.exchange(
+                "/api/tasks/page?cursor=garbage", HttpMethod.GET, new HttpEntity<>(getJsonHeaders()), ErrorResponse.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrorCode()).isEqualTo("INVALID_CURSOR");
+    }
+
+    @Test
+    void shouldCreateTasksInBulk() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("testuser", "password");
+        BulkCreateTaskResource bulk = new BulkCreateTaskResource();
+        List<CreateTaskResource> tasks = new java.util.ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            CreateTaskResource task = new CreateTaskResource();
+            task.setTitle("Импорт " + i);
+            tasks.add(task);
+        }
+        bulk.setTasks(tasks);
+
+        ResponseEntity<TaskResource[]> response = authRestTemplate.postForEntity(
+                "/api/tasks/bulk", new HttpEntity<>(bulk, getJsonHeaders()), TaskResource[].class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).hasSize(120);
+        assertThat(response.getBody()).extracting(TaskResource::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(response.getBody()[119].getTitle()).isEqualTo("Импорт 119");
+    }
+
+    @Test
+    void shouldReturnBadRequestForEmptyBulk() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("testuser", "password");
+        BulkCreateTaskResource bulk = new BulkCreateTaskResource();
+        bulk.setTasks(List.of());
+        ResponseEntity<ErrorResponse> response = authRestTemplate.postForEntity(
+                "/api/tasks/bulk", new HttpEntity<>(bulk, getJsonHeaders()), ErrorResponse.class
+        );
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getErrorCode()).isEqualTo("INVALID_TASKS");
+    }
+
+    @Test
+    void shouldExecuteBatchScopedToCurrentUser() {
+        TestRestTemplate owner = createAuthenticatedRestTemplate("batchowner", "password");
+        TestRestTemplate stranger = createAuthenticatedRestTemplate("batchstranger", "password");
+        Long toComplete = createTask(owner, "Закрыть");
+        Long toUpdate = createTask(owner, "Переименовать");
+        Long toDelete = createTask(owner, "Удалить");
+        Long foreign = createTask(stranger, "Чужая");
+
+        BatchRequestResource batch = new BatchRequestResource();
+        batch.setOperations(List.of(
+                operation(BatchOperationResource.Type.CREATE, null, "Новая"),
+                operation(BatchOperationResource.Type.COMPLETE, toComplete, null),
+                operation(BatchOperationResource.Type.UPDATE, toUpdate, "Переименована"),
+                operation(BatchOperationResource.Type.DELETE, toDelete, null),
+                operation(BatchOperationResource.Type.DELETE, foreign, null),
+                operation(BatchOperationResource.Type.REOPEN, toComplete, null),
+                operation(BatchOperationResource.Type.CREATE, null, " ")
+        ));
+
+        ResponseEntity<BatchResultResource[]> response = owner.postForEntity(
+                "/api/tasks/batch", new HttpEntity<>(batch, getJsonHeaders()), BatchResultResource[].class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(BatchResultResource::getStatus).containsExactly(
+                BatchResultResource.Status.OK,
+                BatchResultResource.Status.OK,
+                BatchResultResource.Status.OK,
+                BatchResultResource.Status.OK,
+                BatchResultResource.Status.NOT_FOUND,
+                BatchResultResource.Status.INVALID,
+                BatchResultResource.Status.INVALID
+        );
+        assertThat(response.getBody()[0].getId()).isNotNull();
+        assertThat(response.getBody()[5].getErrorCode()).isEqualTo("DUPLICATE_ID");
+
+        assertThat(owner.getForObject("/api/tasks/{id}", TaskResource.class, toComplete).isCompleted()).isTrue();
+        assertThat(owner.getForObject("/api/tasks/{id}", TaskResource.class, toUpdate).getTitle()).isEqualTo("Переименована");
+        assertThat(owner.getForEntity("/api/tasks/{id}", String.class, toDelete).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(stranger.getForEntity("/api/tasks/{id}", String.class, foreign).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldPersistManualOrder() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("orderuser_" + System.currentTimeMillis(), "password");
+        Long first = createTask(authRestTemplate, "Первая");
+        Long second = createTask(authRestTemplate, "Вторая");
+        Long third = createTask(authRestTemplate, "Третья");
+
+        MoveTaskResource toTop = new MoveTaskResource();
+        ResponseEntity<Void> moveResponse = authRestTemplate.exchange(
+                "/api/tasks/{id}/position", HttpMethod.PUT, new HttpEntity<>(toTop, getJsonHeaders()), Void.class, third
+        );
+        assertThat(moveResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        MoveTaskResource afterSecond = new MoveTaskResource();
+        afterSecond.setAfterId(second);
+        authRestTemplate.exchange(
+                "/api/tasks/{id}/position", HttpMethod.PUT, new HttpEntity<>(afterSecond, getJsonHeaders()), Void.class, first
+        );
+
+        TaskResource[] tasks = authRestTemplate.getForObject("/api/tasks", TaskResource[].class);
+        assertThat(tasks).extracting(TaskResource::getId).containsExactly(third, second, first);
+
+        TaskPageResource page = authRestTemplate.getForObject("/api/tasks/page?sort=POSITION&limit=2", TaskPageResource.class);
+        assertThat(page.getItems()).extracting(TaskResource::getId).containsExactly(third, second);
+        TaskPageResource rest = authRestTemplate.getForObject(
+                "/api/tasks/page?sort=POSITION&limit=2&cursor={cursor}", TaskPageResource.class, page.getNextCursor()
+        );
+        assertThat(rest.getItems()).extracting(TaskResource::getId).containsExactly(first);
+    }
+
+    @Test
+    void shouldPageAndExportCommentsOfOwnTaskOnly() {
+        TestRestTemplate owner = createAuthenticatedRestTemplate("commentowner", "password");
+        TestRestTemplate stranger = createAuthenticatedRestTemplate("commentstranger", "password");
+        Long taskId = createTask(owner, "Обсуждение");
+        for (int i = 0; i < 3; i++) {
+            CreateCommentResource comment = new CreateCommentResource();
+            comment.setText("Комментарий " + i);
+            owner.postForEntity("/api/comments/task/" + taskId, new HttpEntity<>(comment, getJsonHeaders()), CommentResource.class);
+        }
+
+        CommentPageResource first = owner.getForObject("/api/comments/task/{id}/page?limit=2", CommentPageResource.class, taskId);
+        assertThat(first.getItems()).extracting(CommentResource::getText).containsExactly("Комментарий 0", "Комментарий 1");
+        CommentPageResource second = owner.getForObject(
+                "/api/comments/task/{id}/page?limit=2&cursor={cursor}", CommentPageResource.class, taskId, first.getNextCursor()
+        );
+        assertThat(second.getItems()).extracting(CommentResource::getText).containsExactly("Комментарий 2");
+        assertThat(second.getNextCursor()).isNull();
+
+        ResponseEntity<String> export = owner.getForEntity("/api/comments/task/{id}/export", String.class, taskId);
+        assertThat(export.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(export.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(export.getBody().lines()).hasSize(3).allMatch(line -> line.startsWith("{") && line.contains("Комментарий"));
+
+        assertThat(stranger.getForEntity("/api/comments/task/{id}", String.class, taskId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(stranger.getForEntity("/api/comments/task/{id}/page", String.class, taskId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(stranger.getForEntity("/api/comments/task/{id}/export", String.class, taskId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldRecordServiceTimersAndTaskCounters() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("metricsuser", "password");
+        double created = meterRegistry.get("tasker.tasks.created").counter().count();
+        double completed = meterRegistry.get("tasker.tasks.completed").counter().count();
+
+        Long id = createTask(authRestTemplate, "Измерить");
+        UpdateTaskResource update = new UpdateTaskResource();
+        update.setCompleted(true);
+        authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.PUT, new HttpEntity<>(update, getJsonHeaders()), TaskResource.class, id);
+
+        assertThat(meterRegistry.get("tasker.tasks.created").counter().count()).isEqualTo(created + 1);
+        assertThat(meterRegistry.get("tasker.tasks.completed").counter().count()).isEqualTo(completed + 1);
+        assertThat(meterRegistry.get("tasker.service").tag("method", "createTask").timer().count()).isPositive();
+        assertThat(meterRegistry.get("tasker.service").tag("method", "updateTask").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldStayWithinStatementBudgetPerEndpoint() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("budgetuser", "password");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createTask(authRestTemplate, "Бюджет " + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            CreateCommentResource comment = new CreateCommentResource();
+            comment.setText("Комментарий " + i);
+            authRestTemplate.postForEntity("/api/comments/task/" + ids.get(0), new HttpEntity<>(comment, getJsonHeaders()), CommentResource.class);
+        }
+
+        // list version, then the rows
+        assertStatements(authRestTemplate.getForEntity("/api/tasks", String.class)).isEqualTo(2);
+        assertStatements(authRestTemplate.getForEntity("/api/tasks/page?limit=3", String.class)).isEqualTo(2);
+        // a task by id comes from the second-level cache, filled when it was created
+        assertStatements(authRestTemplate.getForEntity("/api/tasks/{id}", String.class, ids.get(1))).isZero();
+        // comment writes change its comment count over JDBC and evict it, so it is loaded once more
+        assertStatements(authRestTemplate.getForEntity("/api/tasks/{id}", String.class, ids.get(0))).isEqualTo(1);
+        assertStatements(authRestTemplate.getForEntity("/api/tasks/{id}", String.class, Long.MAX_VALUE)).isEqualTo(1);
+        assertStatements(authRestTemplate.getForEntity("/api/comments/task/{id}", String.class, ids.get(0))).isEqualTo(2);
+        assertStatements(authRestTemplate.getForEntity("/api/comments/task/{id}/page", String.class, ids.get(0))).isEqualTo(2);
+
+        CreateTaskResource task = new CreateTaskResource();
+        task.setTitle("Ещё одна");
+        // last position, change number (update and read), counters, insert, and the id sequence when its block runs out
+        assertStatements(authRestTemplate.postForEntity("/api/tasks", new HttpEntity<>(task, getJsonHeaders()), String.class))
+                .isLessThanOrEqualTo(6);
+        UpdateTaskResource update = new UpdateTaskResource();
+        update.setCompleted(true);
+        // change number (update and read), the task, counters, then the row update at flush
+        assertStatements(authRestTemplate.exchange(
+                "/api/tasks/{id}", HttpMethod.PUT, new HttpEntity<>(update, getJsonHeaders()), String.class, ids.get(1)
+        )).isEqualTo(5);
+        // change number (update and read), completed flag, deleted flag, tombstone, counters; comments stay until the purge
+        assertStatements(authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.DELETE, null, String.class, ids.get(0)))
+                .isEqualTo(6);
+    }
+
+    @Test
+    void shouldAnswerConditionalGetsFromChangeVersions() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("etaguser", "password");
+        Long taskId = createTask(authRestTemplate, "Кэшировать");
+
+        ResponseEntity<String> page = authRestTemplate.getForEntity("/api/tasks/page", String.class);
+        String etag = page.getHeaders().getETag();
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(page.getHeaders().getCacheControl()).contains("no-cache").contains("private");
+
+        ResponseEntity<String> unchanged = conditionalGet(authRestTemplate, "/api/tasks/page", etag);
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(unchanged.getBody()).isNull();
+        assertStatements(unchanged).isEqualTo(1);
+
+        createTask(authRestTemplate, "Сбросить кэш");
+        ResponseEntity<String> changed = conditionalGet(authRestTemplate, "/api/tasks/page", etag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+
+        String thread = "/api/comments/task/" + taskId + "/page";
+        String threadTag = authRestTemplate.getForEntity(thread, String.class).getHeaders().getETag();
+        assertThat(conditionalGet(authRestTemplate, thread, threadTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        CreateCommentResource comment = new CreateCommentResource();
+        comment.setText("Новый комментарий");
+        authRestTemplate.postForEntity("/api/comments/task/" + taskId, new HttpEntity<>(comment, getJsonHeaders()), CommentResource.class);
+        assertThat(conditionalGet(authRestTemplate, thread, threadTag).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        TestRestTemplate stranger = createAuthenticatedRestTemplate("etagstranger", "password");
+        assertThat(conditionalGet(stranger, thread, threadTag).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(conditionalGet(stranger, "/api/tasks/page", etag).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldRejectUpdatesAgainstStaleVersion() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("versionuser", "password");
+        Long id = createTask(authRestTemplate, "Версия");
+        String etag = authRestTemplate.getForEntity("/api/tasks/{id}", TaskResource.class, id).getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"" + id + ".0\"");
+
+        UpdateTaskResource rename = new UpdateTaskResource();
+        rename.setTitle("Первая правка");
+        ResponseEntity<TaskResource> first = conditionalPut(authRestTemplate, "/api/tasks/" + id, rename, etag, TaskResource.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getVersion()).isEqualTo(1);
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"" + id + ".1\"");
+
+        rename.setTitle("Потерянная правка");
+        ResponseEntity<ErrorResponse> lost = conditionalPut(authRestTemplate, "/api/tasks/" + id, rename, etag, ErrorResponse.class);
+        assertThat(lost.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(lost.getBody().getErrorCode()).isEqualTo("VERSION_MISMATCH");
+
+        CompleteTaskResource complete = new CompleteTaskResource();
+        complete.setCompleted(true);
+        String current = first.getHeaders().getETag();
+        assertThat(conditionalPut(authRestTemplate, "/api/tasks/" + id + "/completed", complete, etag, ErrorResponse.class)
+                .getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        ResponseEntity<Void> completed = conditionalPut(authRestTemplate, "/api/tasks/" + id + "/completed", complete, current, Void.class);
+        assertThat(completed.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(completed.getHeaders().getETag()).isEqualTo("\"" + id + ".2\"");
+        // change number (update and read), the conditional update of the row, counters
+        assertStatements(completed).isEqualTo(4);
+
+        TaskResource stored = authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, id);
+        assertThat(stored.getTitle()).isEqualTo("Первая правка");
+        assertThat(stored.isCompleted()).isTrue();
+        assertThat(stored.getVersion()).isEqualTo(2);
+
+        ResponseEntity<Void> again = conditionalPut(authRestTemplate, "/api/tasks/" + id + "/completed", complete, null, Void.class);
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, id).getVersion()).isEqualTo(2);
+        assertThat(conditionalPut(authRestTemplate, "/api/tasks/" + Long.MAX_VALUE + "/completed", complete, null, Void.class)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldSyncOnlyChangesSinceToken() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("syncuser", "password");
+        Long kept = createTask(authRestTemplate, "Остаётся");
+        Long edited = createTask(authRestTemplate, "Изменится");
+        Long removed = createTask(authRestTemplate, "Удалится");
+        Long oldComment = addComment(authRestTemplate, kept, "Старый комментарий");
+
+        SyncResource full = authRestTemplate.getForObject("/api/sync", SyncResource.class);
+        assertThat(full.isReset()).isTrue();
+        assertThat(full.getTasks()).extracting(TaskResource::getId).containsExactly(kept, edited, removed);
+        assertThat(full.getComments()).extracting(SyncCommentResource::getId).containsExactly(oldComment);
+
+        UpdateTaskResource rename = new UpdateTaskResource();
+        rename.setTitle("Изменена");
+        authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.PUT, new HttpEntity<>(rename, getJsonHeaders()), TaskResource.class, edited);
+        authRestTemplate.delete("/api/tasks/{id}", removed);
+        authRestTemplate.delete("/api/comments/{id}", oldComment);
+        Long newComment = addComment(authRestTemplate, kept, "Новый комментарий");
+
+        ResponseEntity<SyncResource> response = authRestTemplate.getForEntity("/api/sync?since={token}", SyncResource.class, full.getToken());
+        SyncResource delta = response.getBody();
+        assertThat(delta.isReset()).isFalse();
+        assertThat(delta.getTasks()).extracting(TaskResource::getTitle).containsExactly("Изменена");
+        assertThat(delta.getComments()).extracting(SyncCommentResource::getId, SyncCommentResource::getTaskId)
+                .containsExactly(tuple(newComment, kept));
+        assertThat(delta.getDeletedTaskIds()).containsExactly(removed);
+        assertThat(delta.getDeletedCommentIds()).containsExactly(oldComment);
+        // change sequence, changed tasks, changed comments, tombstones
+        assertStatements(response).isEqualTo(4);
+
+        SyncResource idle = authRestTemplate.getForObject("/api/sync?since={token}", SyncResource.class, delta.getToken());
+        assertThat(idle.getTasks()).isEmpty();
+        assertThat(idle.getComments()).isEmpty();
+        assertThat(idle.getDeletedTaskIds()).isEmpty();
+        assertThat(idle.getDeletedCommentIds()).isEmpty();
+
+        ResponseEntity<ErrorResponse> malformed = authRestTemplate.getForEntity("/api/sync?since=garbage", ErrorResponse.class);
+        assertThat(malformed.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(malformed.getBody().getErrorCode()).isEqualTo("INVALID_TOKEN");
+    }
+
+    @Test
+    void shouldStreamCommittedChangesToOwnSubscribersOnly() throws Exception {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("events-user", "password");
+        TestRestTemplate otherRestTemplate = createAuthenticatedRestTemplate("events-other", "password");
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest subscribe = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/events"))
+                .header(HttpHeaders.AUTHORIZATION, HttpHeaders.encodeBasicAuth("events-user", "password", StandardCharsets.UTF_8)
+                        .transform(credentials -> "Basic " + credentials))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        HttpResponse<Stream<String>> stream = client.send(subscribe, HttpResponse.BodyHandlers.ofLines());
+        assertThat(stream.statusCode()).isEqualTo(200);
+        assertThat(stream.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(
+                type -> assertThat(type).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        try (Stream<String> lines = stream.body()) {
+            Iterator<String> iterator = lines.iterator();
+            List<String> events = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertThat(iterator.next()).isEqualTo(":connected");
+                createTask(otherRestTemplate, "Not mine");
+                Long taskId = createTask(authRestTemplate, "Watched");
+                addComment(authRestTemplate, taskId, "Watched too");
+                List<String> received = new ArrayList<>();
+                while (received.size() < 4) {
+                    String line = iterator.next();
+                    if (line.startsWith("event:") || line.startsWith("data:")) {
+                        received.add(line);
+                    }
+                }
+                return received;
+            });
+            assertThat(events).hasSize(4);
+            assertThat(events.get(0)).isEqualTo("event:task");
+            assertThat(events.get(1)).startsWith("data:{\"kind\":\"TASK\"");
+            assertThat(events.get(2)).isEqualTo("event:comment");
+            assertThat(events.get(3)).startsWith("data:{\"kind\":\"COMMENT\"");
+        }
+    }
+
+    @Test
+    void shouldSearchOwnTasksByRankAcrossTitlesDescriptionsAndComments() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("search-user", "password");
+        createTask(createAuthenticatedRestTemplate("search-other", "password"), "Milk for someone else");
+        Long inTitle = createTask(authRestTemplate, "Buy milk");
+        CreateTaskResource described = new CreateTaskResource();
+        described.setTitle("Groceries");
+        described.setDescription("Oat milk, bread");
+        Long inDescription = authRestTemplate.postForEntity("/api/tasks", new HttpEntity<>(described, getJsonHeaders()), TaskResource.class)
+                .getBody().getId();
+        Long inComment = createTask(authRestTemplate, "Fridge");
+        addComment(authRestTemplate, inComment, "Out of MILK again");
+        Long unrelated = createTask(authRestTemplate, "Walk the dog");
+
+        ResponseEntity<TaskPageResource> first = authRestTemplate.getForEntity("/api/tasks/search?q=milk&limit=2", TaskPageResource.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getItems()).extracting(TaskResource::getId).containsExactly(inTitle, inComment);
+        ResponseEntity<TaskPageResource> second = authRestTemplate.getForEntity(
+                "/api/tasks/search?q=milk&limit=2&cursor=" + first.getBody().getNextCursor(), TaskPageResource.class);
+        assertThat(second.getBody().getItems()).extracting(TaskResource::getId).containsExactly(inDescription);
+        assertThat(second.getBody().getNextCursor()).isNull();
+
+        assertThat(authRestTemplate.getForEntity("/api/tasks/search?q=Oat Milk", TaskPageResource.class).getBody().getItems())
+                .extracting(TaskResource::getId).containsExactly(inDescription);
+
+        // later writes are picked up from the change sequence
+        authRestTemplate.delete("/api/tasks/{id}", inTitle);
+        UpdateTaskResource update = new UpdateTaskResource();
+        update.setTitle("Walk the dog, then buy milk");
+        authRestTemplate.put("/api/tasks/{id}", new HttpEntity<>(update, getJsonHeaders()), unrelated);
+        ResponseEntity<TaskPageResource> afterWrites = authRestTemplate.getForEntity("/api/tasks/search?q=milk", TaskPageResource.class);
+        assertThat(afterWrites.getBody().getItems()).extracting(TaskResource::getId).containsExactly(unrelated, inComment, inDescription);
+        // list version, then the index catching up: change sequence, tombstones, changed tasks and comments; then the hits
+        assertStatements(afterWrites).isEqualTo(6);
+
+        ResponseEntity<ErrorResponse> blank = authRestTemplate.getForEntity("/api/tasks/search?q= ", ErrorResponse.class);
+        assertThat(blank.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(blank.getBody().getErrorCode()).isEqualTo("INVALID_QUERY");
+    }
+
+    @Test
+    void shouldServeTasksFromSecondLevelCacheAndEvictThemOnWrite() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("cacheuser", "password");
+        Long id = createTask(authRestTemplate, "Закэшировать");
+
+        assertStatements(authRestTemplate.getForEntity("/api/tasks/{id}", TaskResource.class, id)).isZero();
+        assertStatements(authRestTemplate.getForEntity("/api/tasks", String.class)).isEqualTo(2);
+        // list version only; the rows come from the query cache
+        assertStatements(authRestTemplate.getForEntity("/api/tasks", String.class)).isEqualTo(1);
+
+        CompleteTaskResource complete = new CompleteTaskResource();
+        complete.setCompleted(true);
+        authRestTemplate.exchange("/api/tasks/{id}/completed", HttpMethod.PUT, new HttpEntity<>(complete, getJsonHeaders()), Void.class, id);
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, id).isCompleted()).isTrue();
+        assertThat(authRestTemplate.getForObject("/api/tasks", TaskResource[].class))
+                .extracting(TaskResource::isCompleted).containsExactly(true);
+
+        // rank rebalancing writes over JDBC, past Hibernate, and evicts explicitly
+        rankRebalancer.rebalance(userRepository.findByUsername("cacheuser").orElseThrow().getId());
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, id).getVersion()).isEqualTo(2);
+        assertThat(authRestTemplate.getForObject("/api/tasks", TaskResource[].class))
+                .extracting(TaskResource::getVersion).containsExactly(2L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", Task.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.size").tag("cache", Task.CACHE_REGION).gauge().value()).isPositive();
+    }
+
+    @Test
+    void shouldMaintainTaskStatsAndCommentCountsOnEveryWritePath() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("statsuser", "password");
+        Long commented = createTask(authRestTemplate, "С комментариями");
+        Long completed = createTask(authRestTemplate, "Закрыть");
+        Long deleted = createTask(authRestTemplate, "Удалить");
+        Long batchCompleted = createTask(authRestTemplate, "Закрыть пачкой");
+        Long comment = addComment(authRestTemplate, commented, "Первый");
+        addComment(authRestTemplate, commented, "Второй");
+        authRestTemplate.exchange("/api/comments/{id}", HttpMethod.DELETE, null, Void.class, comment);
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, commented).getCommentCount()).isEqualTo(1);
+
+        CompleteTaskResource complete = new CompleteTaskResource();
+        complete.setCompleted(true);
+        authRestTemplate.exchange("/api/tasks/{id}/completed", HttpMethod.PUT, new HttpEntity<>(complete, getJsonHeaders()), Void.class, completed);
+        authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.DELETE, null, Void.class, deleted);
+        BatchRequestResource batch = new BatchRequestResource();
+        batch.setOperations(List.of(
+                operation(BatchOperationResource.Type.CREATE, null, "Новая"),
+                operation(BatchOperationResource.Type.COMPLETE, batchCompleted, null),
+                operation(BatchOperationResource.Type.DELETE, completed, null)
+        ));
+        authRestTemplate.postForEntity("/api/tasks/batch", new HttpEntity<>(batch, getJsonHeaders()), BatchResultResource[].class);
+
+        TaskStatsResource stats = authRestTemplate.getForObject("/api/tasks/stats", TaskStatsResource.class);
+        assertThat(stats.getOpen()).isEqualTo(2);
+        assertThat(stats.getCompleted()).isEqualTo(1);
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(authRestTemplate.getForObject("/api/tasks", TaskResource[].class))
+                .extracting(TaskResource::getId, TaskResource::getCommentCount)
+                .contains(tuple(commented, 1), tuple(batchCompleted, 0));
+
+        // the counters agree with the rows, so there is nothing to repair until they are broken behind the service
+        Long userId = userRepository.findByUsername("statsuser").orElseThrow().getId();
+        assertThat(counters.reconcile(userId)).isFalse();
+        jdbcTemplate.update("UPDATE app_user SET open_task_count = 42 WHERE id = ?", userId);
+        jdbcTemplate.update("UPDATE task SET comment_count = 7 WHERE id = ?", commented);
+        assertThat(counters.reconcile(userId)).isTrue();
+        assertThat(authRestTemplate.getForObject("/api/tasks/stats", TaskStatsResource.class).getOpen()).isEqualTo(2);
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, commented).getCommentCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("tasker.counters.repaired").counter().count()).isPositive();
+    }
+
+    @Test
+    void shouldRestoreDeletedTaskUntilItIsPurged() {
+        TestRestTemplate authRestTemplate = createAuthenticatedRestTemplate("purgeuser", "password");
+        Long restored = createTask(authRestTemplate, "Вернуть");
+        Long purged = createTask(authRestTemplate, "Удалить насовсем");
+        addComment(authRestTemplate, restored, "Останется");
+        addComment(authRestTemplate, purged, "Исчезнет");
+        addComment(authRestTemplate, purged, "Тоже исчезнет");
+
+        authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.DELETE, null, Void.class, restored);
+        authRestTemplate.exchange("/api/tasks/{id}", HttpMethod.DELETE, null, Void.class, purged);
+        assertThat(authRestTemplate.getForEntity("/api/tasks/{id}", String.class, restored).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(authRestTemplate.getForEntity("/api/comments/task/{id}", String.class, restored).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(authRestTemplate.getForObject("/api/tasks/stats", TaskStatsResource.class).getTotal()).isZero();
+
+        ResponseEntity<Void> restore = authRestTemplate.postForEntity("/api/tasks/{id}/restore", null, Void.class, restored);
+        assertThat(restore.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(authRestTemplate.getForObject("/api/tasks/{id}", TaskResource.class, restored).getCommentCount()).isEqualTo(1);
+        assertThat(authRestTemplate.getForObject("/api/comments/task/{id}", CommentResource[].class, restored))
+                .extracting(CommentResource::getText)
+                .containsExactly("Останется");
+        assertThat(authRestTemplate.getForObject("/api/tasks/stats", TaskStatsResource.class).getTotal()).isEqualTo(1);
+        assertThat(authRestTemplate.postForEntity("/api/tasks/{id}/restore", null, Void.class, restored).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+
+        // past the undo window the task can no longer be restored, and the purger removes it with its comments
+        jdbcTemplate.update("UPDATE task SET deleted_at = ? WHERE id = ?", LocalDateTime.now().minusDays(1), purged);
+        assertThat(authRestTemplate.postForEntity("/api/tasks/{id}/restore", null, Void.class, purged).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(purger.purge()).isGreaterThanOrEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM task WHERE id = ?", Long.class, purged)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM comment WHERE todo_item_id = ?", Long.class, purged)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM comment WHERE todo_item_id = ?", Long.class, restored)).isEqualTo(1);
+        assertThat(meterRegistry.get("tasker.purge.rows").tag("kind", "comment").counter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldExportOwnTasksWithCommentsAsNdjsonAndCsv() throws Exception {
+        TestRestTemplate owner = createAuthenticatedRestTemplate("exportowner", "password");
+        TestRestTemplate stranger = createAuthenticatedRestTemplate("exportstranger", "password");
+        Long discussed = createTask(owner, "Обсудить, потом \"решить\"");
+        Long quiet = createTask(owner, "Без комментариев");
+        addComment(owner, discussed, "Первый");
+        addComment(owner, discussed, "Второй,\nв две строки");
+        addComment(stranger, createTask(stranger, "Чужая"), "Чужой");
+
+        ResponseEntity<String> ndjson = owner.getForEntity("/api/tasks/export", String.class);
+        assertThat(ndjson.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(ndjson.getHeaders().getContentDisposition().getFilename()).isEqualTo("tasks.ndjson");
+        List<String> lines = ndjson.getBody().lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"id\":" + discussed, "\"commentCount\":2", "Первый", "Второй")
+                .doesNotContain("Чужой");
+        assertThat(lines.get(1)).contains("\"id\":" + quiet, "\"comments\":[]");
+
+        ResponseEntity<String> csv = owner.getForEntity("/api/tasks/export?format=CSV", String.class);
+        assertThat(csv.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(csv.getBody()).startsWith("task_id,title,")
+                .contains(discussed + ",\"Обсудить, потом \"\"решить\"\"\",", "\"Второй,\nв две строки\"", quiet + ",Без комментариев,")
+                .doesNotContain("Чужой");
+
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> compressed = owner.exchange("/api/tasks/export", HttpMethod.GET, new HttpEntity<>(gzip), byte[].class);
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(ndjson.getBody());
+        }
+    }
+
+    @Test
+    void shouldImportTasksWithCommentsAndReportSkippedLines() {
+        TestRestTemplate importer = createAuthenticatedRestTemplate("importowner", "password");
+        String ndjson = """
+                {"title":"Перенесённая","priority":"HIGH","completed":true,"createdAt":"2024-03-01T10:00:00","comments":[{"text":"Первый"},{"text":"Второй"}]}
+                {"title":"  "}
+
+                {"title":
+                {"title":"Без комментариев"}
+                """;
+        HttpHeaders ndjsonHeaders = new HttpHeaders();
+        ndjsonHeaders.setContentType(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+        ResponseEntity<String> imported = importer.postForEntity("/api/tasks/import", new HttpEntity<>(ndjson, ndjsonHeaders), String.class);
+        assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(imported.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        List<String> events = imported.getBody().lines().toList();
+        assertThat(events).anySatisfy(event -> assertThat(event).contains("\"type\":\"ERROR\"", "\"line\":2", "INVALID_TITLE"))
+                .anySatisfy(event -> assertThat(event).contains("\"type\":\"ERROR\"", "\"line\":4", "INVALID_JSON"))
+                .anySatisfy(event -> assertThat(event).contains("\"type\":\"PROGRESS\""));
+        assertThat(events.get(events.size() - 1)).contains("\"type\":\"DONE\"", "\"line\":5", "\"tasks\":2", "\"comments\":2", "\"rejected\":2");
+
+        List<String> exported = importer.getForEntity("/api/tasks/export", String.class).getBody().lines().toList();
+        assertThat(exported).hasSize(2);
+        assertThat(exported.get(0)).contains("Перенесённая", "\"completed\":true", "\"priority\":\"HIGH\"",
+                "\"createdAt\":\"2024-03-01T10:00:00\"", "\"commentCount\":2", "Первый", "Второй");
+        assertThat(exported.get(1)).contains("Без комментариев", "\"comments\":[]");
+        TaskStatsResource stats = importer.getForObject("/api/tasks/stats", TaskStatsResource.class);
+        assertThat(stats.getOpen()).isEqualTo(1);
+        assertThat(stats.getCompleted()).isEqualTo(1);
+
+        // the CSV export reads back as the same two tasks, comments grouped by task_id
+        String csv = importer.getForEntity("/api/tasks/export?format=CSV", String.class).getBody();
+        HttpHeaders csvHeaders = new HttpHeaders();
+        csvHeaders.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        List<String> csvEvents = importer.postForEntity("/api/tasks/import?format=CSV", new HttpEntity<>(csv, csvHeaders), String.class)
+                .getBody().lines().toList();
+        assertThat(csvEvents.get(csvEvents.size() - 1)).contains("\"type\":\"DONE\"", "\"tasks\":2", "\"comments\":2", "\"rejected\":0");
+        assertThat(importer.getForObject("/api/tasks/stats", TaskStatsResource.class).getTotal()).isEqualTo(4);
+
+        ResponseEntity<ErrorResponse> noTitle = importer.postForEntity("/api/tasks/import?format=CSV",
+                new HttpEntity<>("description\nx\n", csvHeaders), ErrorResponse.class);
+        assertThat(noTitle.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldEndAbortedImportWithResumableErrorEvent() throws Exception {
+        TestRestTemplate importer = createAuthenticatedRestTemplate("abortedimport", "password");
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            for (int i = 0; i < 100; i++) {
+                gzip.write(("{\"title\":\"Задача " + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // the upload breaks off in the middle of the compressed stream
+        byte[] truncated = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        ResponseEntity<String> imported = importer.postForEntity("/api/tasks/import", new HttpEntity<>(truncated, headers), String.class);
+
+        assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> events = imported.getBody().lines().toList();
+        assertThat(events).noneSatisfy(event -> assertThat(event).contains("\"type\":\"DONE\""));
+        assertThat(events.get(events.size() - 1)).contains("\"type\":\"ERROR\"", "IMPORT_ABORTED", "\"line\":0", "\"tasks\":0");
+        assertThat(importer.getForObject("/api/tasks/stats", TaskStatsResource.class).getTotal()).isZero();
+    }
+
+    private Long addComment(TestRestTemplate authRestTemplate, Long taskId, String text) {
+        CreateCommentResource comment = new CreateCommentResource();
+        comment.setText(text);
+        return authRestTemplate.postForEntity("/api/comments/task/" + taskId, new HttpEntity<>(comment, getJsonHeaders()), CommentResource.class)
+                .getBody().getId();
+    }
+
+    private <T> ResponseEntity<T> conditionalPut(TestRestTemplate authRestTemplate, String url, Object body, String etag, Class<T> type) {
+        HttpHeaders headers = getJsonHeaders();
+        if (etag != null) {
+            headers.setIfMatch(etag);
+        }
+        return authRestTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(body, headers), type);
+    }
+
+    private ResponseEntity<String> conditionalGet(TestRestTemplate authRestTemplate, String url, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return authRestTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private Long createTask(TestRestTemplate authRestTemplate, String title) {
+        CreateTaskResource task = new CreateTaskResource();
+        task.setTitle(title);
+        return authRestTemplate.postForEntity("/api/tasks", new HttpEntity<>(task, getJsonHeaders()), TaskResource.class)
+                .getBody().getId();
+    }
+
+    private BatchOperationResource operation(BatchOperationResource.Type type, Long id, String title) {
+        BatchOperationResource operation = new BatchOperationResource();
+        operation.setOp(type);
+        operation.setId(id);
+        operation.setTitle(title);
+        return operation;
+    }
+}
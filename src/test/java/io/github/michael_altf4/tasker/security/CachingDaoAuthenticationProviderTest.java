@@ -0,0 +1,77 @@
+package io.github.michael_altf4.tasker.security;
+
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDaoAuthenticationProviderTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private CachingDaoAuthenticationProvider provider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("apiuser", "{bcrypt}hash");
+        CredentialCache credentialCache = new CredentialCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        provider = new CachingDaoAuthenticationProvider(userDetailsService, passwordEncoder, credentialCache);
+        when(userDetailsService.loadUserByUsername("apiuser")).thenAnswer(invocation -> user);
+    }
+
+    @Test
+    void shouldVerifyPasswordOnlyOnceForRepeatedLogins() {
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenReturn(true);
+
+        assertThat(provider.authenticate(token("secret")).isAuthenticated()).isTrue();
+        assertThat(provider.authenticate(token("secret")).isAuthenticated()).isTrue();
+
+        verify(passwordEncoder, times(1)).matches("secret", "{bcrypt}hash");
+    }
+
+    @Test
+    void shouldAlwaysVerifyWrongPassword() {
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenReturn(true);
+        when(passwordEncoder.matches("wrong", "{bcrypt}hash")).thenReturn(false);
+        provider.authenticate(token("secret"));
+
+        assertThatThrownBy(() -> provider.authenticate(token("wrong"))).isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(token("wrong"))).isInstanceOf(BadCredentialsException.class);
+
+        verify(passwordEncoder, times(2)).matches("wrong", "{bcrypt}hash");
+    }
+
+    @Test
+    void shouldVerifyAgainAfterPasswordChange() {
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenReturn(true);
+        provider.authenticate(token("secret"));
+
+        user = new User("apiuser", "{bcrypt}newhash");
+        when(passwordEncoder.matches("secret", "{bcrypt}newhash")).thenReturn(false);
+
+        assertThatThrownBy(() -> provider.authenticate(token("secret"))).isInstanceOf(BadCredentialsException.class);
+    }
+
+    private UsernamePasswordAuthenticationToken token(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("apiuser", password);
+    }
+}
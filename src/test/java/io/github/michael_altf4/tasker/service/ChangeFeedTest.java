@@ -0,0 +1,141 @@
+package io.github.michael_altf4.tasker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeFeedTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldFanOutCommittedChangesToThousandsOfIdleSubscribers() throws Exception {
+        ChangeFeed feed = feed(8);
+        int users = 50;
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            feed.register((long) (i % users), emitter);
+            emitters.add(emitter);
+        }
+        assertThat(feed.subscriberCount()).isEqualTo(5_000);
+
+        for (long user = 0; user < users; user++) {
+            feed.onChange(new ChangeEvent(user, ChangeTracker.Kind.TASK, 7));
+        }
+        feed.onChange(new ChangeEvent(3L, ChangeTracker.Kind.COMMENT, 8));
+        feed.heartbeat();
+
+        awaitUntil(() -> emitters.stream().allMatch(e -> e.sent.size() >= 3));
+        assertThat(emitters.get(0).sent).containsExactly(
+                ":connected",
+                "id:7 event:task data:ChangeEventResource(kind=TASK, changeSeq=7)",
+                ":heartbeat");
+        assertThat(emitters.get(3).sent).hasSize(4)
+                .contains("id:8 event:comment data:ChangeEventResource(kind=COMMENT, changeSeq=8)");
+        assertThat(registry.get("tasker.events.subscribers").gauge().value()).isEqualTo(5_000);
+        assertThat(registry.get("tasker.events.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldDisconnectSlowConsumerWithoutAffectingOthers() throws Exception {
+        ChangeFeed feed = feed(4);
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        feed.register(1L, slow);
+        feed.register(1L, fast);
+        slow.release = stalled;
+
+        for (int seq = 1; seq <= 10; seq++) {
+            feed.onChange(new ChangeEvent(1L, ChangeTracker.Kind.TASK, seq));
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+
+        assertThat(slow.completed).isTrue();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(registry.get("tasker.events.dropped").counter().count()).isEqualTo(1);
+        awaitUntil(() -> fast.sent.size() == 11);
+        stalled.countDown();
+    }
+
+    @Test
+    void shouldForgetSubscriberWhoseConnectionBroke() throws Exception {
+        ChangeFeed feed = feed(4);
+        RecordingEmitter broken = new RecordingEmitter();
+        feed.register(1L, broken);
+        broken.failing = true;
+
+        feed.onChange(new ChangeEvent(1L, ChangeTracker.Kind.TASK, 1));
+        awaitUntil(() -> feed.subscriberCount() == 0);
+        feed.onChange(new ChangeEvent(1L, ChangeTracker.Kind.TASK, 2));
+        assertThat(broken.sent).containsExactly(":connected");
+    }
+
+    private ChangeFeed feed(int bufferSize) {
+        return new ChangeFeed(Mockito.mock(UserService.class), registry, executor, Duration.ofMinutes(30), bufferSize);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10s").isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final Queue<String> sent = new ConcurrentLinkedQueue<>();
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile boolean failing;
+        private volatile boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.add(items.stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining())
+                    .trim()
+                    .replace("\n", " "));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
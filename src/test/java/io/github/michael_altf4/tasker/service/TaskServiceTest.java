@@ -1,6 +1,9 @@
 package io.github.michael_altf4.tasker.service;
 
 
+import io.github.michael_altf4.tasker.exception.BadRequestException;
+import io.github.michael_altf4.tasker.exception.PreconditionFailedException;
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
 import io.github.michael_altf4.tasker.rest.resource.UpdateTaskResource;
 import io.github.michael_altf4.tasker.storage.model.Priority;
 import io.github.michael_altf4.tasker.storage.model.Task;
@@ -13,12 +16,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,52 +35,133 @@ class TaskServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TaskRankRebalancer rankRebalancer;
+
+    @Mock
+    private TaskMetrics taskMetrics;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private TaskCounters counters;
+
+    @Mock
+    private TaskPurger purger;
+
+    @Mock
+    private TaskCacheEvictor cacheEvictor;
+
     @InjectMocks
     private TaskService taskService;
 
     private User testUser;
     private Task sampleTodo;
+    private TaskResource sampleResource;
 
     @BeforeEach
     void setUp() {
         testUser = new User("testuser", "encodedPassword");
+        testUser.setId(1L);
         sampleTodo = new Task("Купить молоко", "Срочно!");
         sampleTodo.setId(1L);
         sampleTodo.setUser(testUser);
         sampleTodo.setPriority(Priority.HIGH);
         sampleTodo.setCompleted(false);
+        sampleResource = new TaskResource(1L, "Купить молоко", "Срочно!", false, Priority.HIGH, sampleTodo.getCreatedAt(), 1024L, 0L, 0);
     }
 
     @Test
     void shouldGetAllTasksForCurrentUser() {
-        List<Task> expectedTodos = List.of(sampleTodo);
+        List<TaskResource> expectedTodos = List.of(sampleResource);
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(repository.findByUser(testUser)).thenReturn(expectedTodos);
-        List<Task> result = taskService.getAllTasks();
+        when(repository.findPage(testUser, TaskFilter.NONE, TaskSort.POSITION, null, TaskService.LEGACY_LIST_LIMIT)).thenReturn(expectedTodos);
+        List<TaskResource> result = taskService.getAllTasks();
         assertThat(result).isEqualTo(expectedTodos);
         verify(userService).getCurrentUser();
-        verify(repository).findByUser(testUser);
+        verify(repository).findPage(testUser, TaskFilter.NONE, TaskSort.POSITION, null, TaskService.LEGACY_LIST_LIMIT);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreTasksExist() {
+        TaskResource older = new TaskResource(2L, "Старая задача", null, false, Priority.MEDIUM,
+                sampleResource.getCreatedAt().minusDays(1), 2048L, 0L, 0);
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPage(testUser, TaskFilter.NONE, TaskSort.NEWEST, null, 2)).thenReturn(List.of(sampleResource, older));
+
+        TaskPage page = taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, null, 1);
+
+        assertThat(page.tasks()).containsExactly(sampleResource);
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(TaskCursor.decode(page.nextCursor(), TaskSort.NEWEST)).isEqualTo(TaskCursor.of(sampleResource, TaskSort.NEWEST));
+    }
+
+    @Test
+    void shouldNotReturnNextCursorOnLastPage() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPage(testUser, TaskFilter.NONE, TaskSort.NEWEST, null, 21)).thenReturn(List.of(sampleResource));
+
+        TaskPage page = taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, null, 20);
+
+        assertThat(page.tasks()).containsExactly(sampleResource);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void shouldRejectOutOfRangeLimit() {
+        assertThatThrownBy(() -> taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, null, TaskService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Limit must be between 1 and " + TaskService.MAX_PAGE_SIZE);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> taskService.getTasks(TaskFilter.NONE, TaskSort.NEWEST, "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor is malformed");
+        verifyNoInteractions(repository);
     }
 
     @Test
     void shouldGetTaskByIdWhenExistsAndBelongsToUser() {
         Long todoId = 1L;
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(repository.findByIdAndUser(todoId, testUser)).thenReturn(Optional.of(sampleTodo));
+        when(repository.findById(todoId)).thenReturn(Optional.of(sampleTodo));
         Optional<Task> result = taskService.getTodoById(todoId);
         assertThat(result).contains(sampleTodo);
         verify(userService).getCurrentUser();
-        verify(repository).findByIdAndUser(todoId, testUser);
+        verify(repository).findById(todoId);
+    }
+
+    @Test
+    void shouldBuildTaskResourceFromPrimaryKeyLoad() {
+        sampleTodo.setPosition(1024L);
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findById(1L)).thenReturn(Optional.of(sampleTodo));
+        assertThat(taskService.getTodoResourceById(1L)).contains(sampleResource);
+        verify(repository, never()).findByIdAndUser(anyLong(), any());
+    }
+
+    @Test
+    void shouldHideTaskOfAnotherUser() {
+        User otherUser = new User("otheruser", "encodedPassword");
+        otherUser.setId(2L);
+        when(userService.getCurrentUser()).thenReturn(otherUser);
+        when(repository.findById(1L)).thenReturn(Optional.of(sampleTodo));
+        assertThat(taskService.getTodoById(1L)).isEmpty();
+        assertThat(taskService.getTaskVersion(1L)).isEmpty();
     }
 
     @Test
     void shouldReturnEmptyOptionalWhenTaskNotFound() {
         Long todoId = 999L;
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(repository.findByIdAndUser(todoId, testUser)).thenReturn(Optional.empty());
+        when(repository.findById(todoId)).thenReturn(Optional.empty());
         Optional<Task> result = taskService.getTodoById(todoId);
         assertThat(result).isEmpty();
-        verify(repository).findByIdAndUser(todoId, testUser);
+        verify(repository).findById(todoId);
     }
 
     @Test
@@ -88,6 +174,38 @@ class TaskServiceTest {
         assertThat(inputTodo.getUser()).isEqualTo(testUser);
         verify(userService).getCurrentUser();
         verify(repository).save(inputTodo);
+        verify(changeTracker).next(testUser.getId(), ChangeTracker.Kind.TASK);
+        verify(taskMetrics).tasksCreated(1);
+        verify(counters).tasksAdded(testUser.getId(), 1, 0);
+    }
+
+    @Test
+    void shouldCountCompletionOnlyWhenTaskWasOpen() {
+        UpdateTaskResource complete = new UpdateTaskResource();
+        complete.setCompleted(true);
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(sampleTodo));
+        when(repository.save(sampleTodo)).thenReturn(sampleTodo);
+
+        taskService.updateTask(1L, complete);
+        taskService.updateTask(1L, complete);
+
+        assertThat(sampleTodo.isCompleted()).isTrue();
+        verify(taskMetrics, times(1)).tasksCompleted(1);
+        verify(counters, times(1)).tasksCompleted(testUser.getId(), 1, true);
+    }
+
+    @Test
+    void shouldCreateTasksInBulkWithCurrentUser() {
+        List<Task> inputTodos = List.of(new Task("Первая", null), new Task("Вторая", null));
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.saveAll(inputTodos)).thenReturn(inputTodos);
+        List<Task> result = taskService.createTasks(inputTodos);
+        assertThat(result).isEqualTo(inputTodos);
+        assertThat(inputTodos).allMatch(todo -> todo.getUser() == testUser);
+        verify(userService, times(1)).getCurrentUser();
+        verify(repository).saveAll(inputTodos);
+        verify(counters).tasksAdded(testUser.getId(), 2, 0);
     }
 
     @Test
@@ -130,25 +248,144 @@ class TaskServiceTest {
         verify(repository, never()).save(any());
     }
 
+    @Test
+    void shouldRejectUpdateOfStaleVersion() {
+        sampleTodo.setVersion(3);
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(sampleTodo));
+        UpdateTaskResource rename = new UpdateTaskResource();
+        rename.setTitle("Другое название");
+
+        assertThatThrownBy(() -> taskService.updateTask(1L, rename, 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(sampleTodo.getTitle()).isEqualTo("Купить молоко");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldCompleteTaskWithSingleConditionalUpdate() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(changeTracker.next(testUser.getId(), ChangeTracker.Kind.TASK)).thenReturn(9L);
+        when(repository.updateCompletedIfVersion(testUser.getId(), 1L, true, 4L, 9L)).thenReturn(1);
+
+        assertThat(taskService.setCompleted(1L, true, 4L)).isEqualTo(TaskUpdateResult.UPDATED);
+        verify(repository, never()).findVersion(any(), any());
+        verify(repository, never()).findByIdAndUser(any(), any());
+        verify(taskMetrics).tasksCompleted(1);
+        verify(counters).tasksCompleted(testUser.getId(), 1, true);
+        verify(cacheEvictor).evictAfterCommit(1L);
+    }
+
+    @Test
+    void shouldMoveTaskBetweenNeighboursWithSingleUpdate() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPosition(testUser, 2L)).thenReturn(Optional.of(1024L));
+        when(repository.findNextPosition(testUser, 1024L, 1L)).thenReturn(2048L);
+        when(repository.updatePosition(testUser.getId(), 1L, 1536L, 0L)).thenReturn(1);
+
+        assertThat(taskService.moveTask(1L, 2L)).isTrue();
+
+        verify(repository).updatePosition(testUser.getId(), 1L, 1536L, 0L);
+        verifyNoInteractions(rankRebalancer);
+        verify(cacheEvictor).evictAfterCommit(1L);
+    }
+
+    @Test
+    void shouldMoveTaskToTop() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findMinPosition(testUser, 1L)).thenReturn(1024L);
+        when(repository.updatePosition(testUser.getId(), 1L, 0L, 0L)).thenReturn(1);
+
+        assertThat(taskService.moveTask(1L, null)).isTrue();
+    }
+
+    @Test
+    void shouldRebalanceInlineWhenGapIsExhausted() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPosition(testUser, 2L)).thenReturn(Optional.of(1024L), Optional.of(2048L));
+        when(repository.findNextPosition(testUser, 1024L, 1L)).thenReturn(1025L);
+        when(repository.findNextPosition(testUser, 2048L, 1L)).thenReturn(3072L);
+        when(repository.updatePosition(testUser.getId(), 1L, 2560L, 0L)).thenReturn(1);
+
+        assertThat(taskService.moveTask(1L, 2L)).isTrue();
+
+        verify(rankRebalancer).rebalance(testUser.getId());
+        verify(repository).updatePosition(testUser.getId(), 1L, 2560L, 0L);
+    }
+
+    @Test
+    void shouldScheduleRebalanceWhenGapGetsSmall() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPosition(testUser, 2L)).thenReturn(Optional.of(1024L));
+        when(repository.findNextPosition(testUser, 1024L, 1L)).thenReturn(1030L);
+        when(repository.updatePosition(testUser.getId(), 1L, 1027L, 0L)).thenReturn(1);
+
+        assertThat(taskService.moveTask(1L, 2L)).isTrue();
+
+        verify(rankRebalancer).schedule(testUser.getId());
+        verify(rankRebalancer, never()).rebalance(any());
+    }
+
+    @Test
+    void shouldNotMoveAfterForeignTask() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.findPosition(testUser, 2L)).thenReturn(Optional.empty());
+
+        assertThat(taskService.moveTask(1L, 2L)).isFalse();
+
+        verify(repository, never()).updatePosition(any(), any(), anyLong(), anyLong());
+    }
+
     @Test
     void shouldDeleteTaskWhenExistsAndBelongsToUser() {
         Long todoId = 1L;
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(repository.existsByIdAndUser(todoId, testUser)).thenReturn(true);
+        when(repository.findCompleted(testUser, todoId)).thenReturn(Optional.of(false));
+        when(repository.softDelete(eq(testUser.getId()), eq(List.of(todoId)), any(LocalDateTime.class), anyLong())).thenReturn(1);
         taskService.deleteTask(todoId);
-        verify(repository).existsByIdAndUser(todoId, testUser);
-        verify(repository).deleteById(todoId);
+        verify(repository).softDelete(eq(testUser.getId()), eq(List.of(todoId)), any(LocalDateTime.class), anyLong());
+        verify(repository, never()).delete(any());
+        verify(cacheEvictor).evictAfterCommit(todoId);
+        verify(changeTracker).recordDeletes(eq(testUser.getId()), eq(ChangeTracker.Kind.TASK), eq(List.of(todoId)), anyLong());
+        verify(counters).tasksRemoved(testUser.getId(), 1, 0);
     }
 
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentTask() {
         Long todoId = 999L;
         when(userService.getCurrentUser()).thenReturn(testUser);
-        when(repository.existsByIdAndUser(todoId, testUser)).thenReturn(false);
+        when(repository.findCompleted(testUser, todoId)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> taskService.deleteTask(todoId))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Task not found or access denied");
 
-        verify(repository, never()).deleteById(any());
+        verify(repository, never()).softDelete(any(), any(), any(), anyLong());
+        verify(changeTracker, never()).recordDeletes(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void shouldRestoreTaskDeletedWithinUndoWindow() {
+        LocalDateTime restorableSince = LocalDateTime.now().minusMinutes(30);
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(changeTracker.next(testUser.getId(), ChangeTracker.Kind.TASK)).thenReturn(7L);
+        when(purger.restorableSince()).thenReturn(restorableSince);
+        when(repository.restore(testUser.getId(), 1L, restorableSince, 7L)).thenReturn(Optional.of(true));
+
+        assertThat(taskService.restoreTask(1L)).isTrue();
+
+        verify(changeTracker).forgetDelete(testUser.getId(), ChangeTracker.Kind.TASK, 1L);
+        verify(counters).tasksAdded(testUser.getId(), 0, 1);
+        verify(cacheEvictor).evictAfterCommit(1L);
+    }
+
+    @Test
+    void shouldNotRestoreTaskPastUndoWindow() {
+        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(repository.restore(eq(testUser.getId()), eq(1L), any(), anyLong())).thenReturn(Optional.empty());
+
+        assertThat(taskService.restoreTask(1L)).isFalse();
+
+        verify(changeTracker, never()).forgetDelete(any(), any(), any());
+        verify(counters, never()).tasksAdded(any(), anyLong(), anyLong());
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package io.github.michael_altf4.tasker.service;
 
 import io.github.michael_altf4.tasker.storage.model.User;
 import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -12,6 +13,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,8 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    private final UserCache userCache = new UserCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
     @Test
     void shouldReturnCurrentUser() {
         String username = "testuser";
@@ -37,7 +41,7 @@ class UserServiceTest {
         context.setAuthentication(auth);
         SecurityContextHolder.setContext(context);
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        UserService service = new UserService(userRepository);
+        UserService service = new UserService(userRepository, userCache);
         User result = service.getCurrentUser();
         assertThat(result).isEqualTo(user);
         verify(userRepository).findByUsername(username);
@@ -55,9 +59,44 @@ class UserServiceTest {
         SecurityContextHolder.setContext(context);
 
         when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
-        UserService service = new UserService(userRepository);
+        UserService service = new UserService(userRepository, userCache);
         assertThatThrownBy(() -> service.getCurrentUser())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("User not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        String username = "cacheduser";
+        User user = new User(username, "pass");
+        authenticate(username);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        UserService service = new UserService(userRepository, userCache);
+
+        assertThat(service.getCurrentUser()).isEqualTo(user);
+        assertThat(service.getCurrentUser()).isEqualTo(user);
+
+        verify(userRepository, times(1)).findByUsername(username);
+    }
+
+    @Test
+    void shouldReloadUserAfterEviction() {
+        String username = "evicteduser";
+        authenticate(username);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(new User(username, "pass")));
+        UserService service = new UserService(userRepository, userCache);
+
+        service.getCurrentUser();
+        userCache.evict(username);
+        service.getCurrentUser();
+
+        verify(userRepository, times(2)).findByUsername(username);
+    }
+
+    private void authenticate(String username) {
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(username, "pass", List.of());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+    }
+}
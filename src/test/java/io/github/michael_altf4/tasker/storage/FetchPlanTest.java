@@ -0,0 +1,134 @@
+package io.github.michael_altf4.tasker.storage;
+
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.Comment;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.CommentRepository;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements each read path of the endpoints issues, so an association that
+ * turns eager again, or a cache that stops serving, shows up as a failing count.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class FetchPlanTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Task task;
+    private Comment comment;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("fetchplan-" + System.nanoTime(), "password"));
+        task = new Task("Задача с обсуждением", null);
+        task.setUser(user);
+        task = taskRepository.save(task);
+        for (int i = 0; i < 3; i++) {
+            Comment saved = new Comment();
+            saved.setText("Комментарий " + i);
+            saved.setTask(task);
+            comment = commentRepository.save(saved);
+        }
+    }
+
+    @Test
+    void listingIssuesOneStatementThenServesPageFromQueryCache() {
+        long statements = countStatements(() -> taskRepository.findPage(user, TaskFilter.NONE, TaskSort.NEWEST, null, 20));
+        assertThat(statements).isEqualTo(1);
+
+        statements = countStatements(() -> taskRepository.findPage(user, TaskFilter.NONE, TaskSort.NEWEST, null, 20));
+        assertThat(statements).isZero();
+
+        statements = countStatements(() -> {
+            List<Task> tasks = taskRepository.findByUserAndIdIn(user, List.of(task.getId()));
+            assertThat(Hibernate.isInitialized(tasks.get(0).getUser())).isFalse();
+            return tasks;
+        });
+        assertThat(statements).isEqualTo(1);
+    }
+
+    /**
+     * The detail page and {@code GET /api/tasks/{id}} load by primary key and check the owner on the
+     * lazy reference, as {@code TaskService} does; the comments come from the paged endpoint.
+     */
+    @Test
+    void detailLoadsTaskWithoutOwnerThenServesItFromCache() {
+        entityManagerFactory.getCache().evict(Task.class, task.getId());
+        Supplier<Task> findOwned = () -> {
+            Task loaded = taskRepository.findById(task.getId())
+                    .filter(found -> user.getId().equals(found.getUser().getId()))
+                    .orElseThrow();
+            assertThat(Hibernate.isInitialized(loaded.getUser())).isFalse();
+            return loaded;
+        };
+
+        assertThat(countStatements(findOwned)).isEqualTo(1);
+        assertThat(countStatements(findOwned)).isZero();
+    }
+
+    @Test
+    void updateLoadsTaskWithoutOwnerInOneStatement() {
+        long statements = countStatements(() -> {
+            Task loaded = taskRepository.findByIdAndUser(task.getId(), user).orElseThrow();
+            assertThat(Hibernate.isInitialized(loaded.getUser())).isFalse();
+            return loaded.getTitle();
+        });
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void commentThreadDoesNotLoadTask() {
+        long statements = countStatements(() -> commentRepository.findOwned(user, task.getId(), Limit.of(50)));
+        assertThat(statements).isEqualTo(1);
+
+        statements = countStatements(() -> {
+            Comment loaded = commentRepository.findOwnedById(comment.getId(), user).orElseThrow();
+            assertThat(Hibernate.isInitialized(loaded.getTask())).isFalse();
+            return loaded.getText();
+        });
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private long countStatements(Supplier<?> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> action.get());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.michael_altf4.tasker.storage;
+
+import io.github.michael_altf4.tasker.rest.resource.TaskResource;
+import io.github.michael_altf4.tasker.service.TaskCacheEvictor;
+import io.github.michael_altf4.tasker.service.TaskFilter;
+import io.github.michael_altf4.tasker.service.TaskSort;
+import io.github.michael_altf4.tasker.storage.model.Task;
+import io.github.michael_altf4.tasker.storage.model.User;
+import io.github.michael_altf4.tasker.storage.repository.TaskRepository;
+import io.github.michael_altf4.tasker.storage.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cached task list pages against writes that go past Hibernate over JDBC.
+ */
+@SpringBootTest
+class TaskPageCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCacheEvictor cacheEvictor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void pageReadBeforeJdbcWriteCommittedIsNotServedAfterwards() {
+        User user = userRepository.save(new User("pagecache-" + System.nanoTime(), "password"));
+        Task task = new Task("Полить цветы", null);
+        task.setUser(user);
+        Long id = taskRepository.save(task).getId();
+
+        TransactionTemplate reader = new TransactionTemplate(transactionManager);
+        reader.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        reader.executeWithoutResult(status -> {
+            // pins the reader to the row as it was before the write
+            assertThat(jdbcTemplate.queryForObject("SELECT completed FROM task WHERE id = ?", Boolean.class, id)).isFalse();
+            writer.executeWithoutResult(inner -> {
+                cacheEvictor.evictAfterCommit(id);
+                assertThat(taskRepository.updateCompleted(user.getId(), List.of(id), true, 1)).isEqualTo(1);
+            });
+            // read from the old rows and stored in the query cache after the write committed
+            assertThat(page(user)).extracting(TaskResource::isCompleted).containsExactly(false);
+        });
+
+        List<TaskResource> page = new TransactionTemplate(transactionManager).execute(status -> page(user));
+        assertThat(page).extracting(TaskResource::isCompleted).containsExactly(true);
+    }
+
+    private List<TaskResource> page(User user) {
+        return taskRepository.findPage(user, TaskFilter.NONE, TaskSort.NEWEST, null, 20);
+    }
+}